@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import net.revelc.code.blazon.sources.MapSource;
+import net.revelc.code.blazon.sources.PropertiesSource;
+import net.revelc.code.blazon.types.network.Port;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Key#getValue(Source)} and {@link Key#getInt(Source)} over a {@link MapSource} and
+ * a {@link PropertiesSource}, including a key which falls back to its default value, with one
+ * thread and with eight threads contending for the same source. The immutable {@link MapSource}
+ * serves repeated reads from each key's cache, while the mutable one parses every read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class KeyBenchmark {
+
+  private final Key<Integer> port = new Key<>("server.port", Port.ANY);
+  private final Key<Integer> missingPort = new Key<>("client.port", Port.ANY, 9999);
+
+  private MapSource mapSource;
+  private MapSource mutableMapSource;
+  private PropertiesSource propertiesSource;
+
+  /**
+   * Create the sources, each with the same entries.
+   */
+  @Setup
+  public void createSources() {
+    final Properties props = new Properties();
+    for (int i = 0; i < 100; i++) {
+      props.setProperty("server" + i + ".name", "server" + i);
+    }
+    props.setProperty(port.getKey(), "8080");
+    mapSource = new MapSource(ImmutableMap.copyOf(props));
+    mutableMapSource = new MapSource(new HashMap<>(ImmutableMap.copyOf(props)));
+    propertiesSource = new PropertiesSource(props);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Integer mapSource() {
+    return port.getValue(mapSource);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Integer mapSourceContended() {
+    return port.getValue(mapSource);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Integer mutableMapSource() {
+    return port.getValue(mutableMapSource);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Integer mapSourceDefault() {
+    return missingPort.getValue(mapSource);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int mapSourceInt() {
+    return port.getInt(mapSource);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Integer propertiesSource() {
+    return port.getValue(propertiesSource);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Integer propertiesSourceContended() {
+    return port.getValue(propertiesSource);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Integer propertiesSourceDefault() {
+    return missingPort.getValue(propertiesSource);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int propertiesSourceInt() {
+    return port.getInt(propertiesSource);
+  }
+
+}
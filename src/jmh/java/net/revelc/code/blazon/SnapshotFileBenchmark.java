@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.revelc.code.blazon.sources.MapSource;
+import net.revelc.code.blazon.types.network.Port;
+import net.revelc.code.blazon.types.strings.OneOf;
+import net.revelc.code.blazon.types.strings.StringType;
+import net.revelc.code.blazon.types.units.Duration;
+import net.revelc.code.blazon.types.units.Quantity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cold start time of resolving a set of keys by parsing their raw values, and by
+ * loading them from a current {@link SnapshotFile}. Each measurement is the first call in a new
+ * JVM, so it includes class loading and runs in the interpreter, as it would at startup. The file
+ * is written from values which are constructed directly, so that the setup doesn't warm up the
+ * parsers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(20)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class SnapshotFileBenchmark {
+
+  @Param("2000")
+  public int keys;
+
+  private final List<Key<?>> declared = new ArrayList<>();
+  private MapSource source;
+  private Path file;
+
+  /**
+   * Declare the keys, with a mix of types, and write a current snapshot file for them without
+   * parsing their raw values.
+   */
+  @Setup(Level.Trial)
+  public void writeFile() throws IOException {
+    final Map<String, String> raw = new HashMap<>();
+    final List<Object> values = new ArrayList<>();
+    final Port port = Port.ANY;
+    final Duration duration = Duration.NON_NEGATIVE;
+    final OneOf<TimeUnit> unit = new OneOf<>(TimeUnit.class);
+    final StringType string = new StringType();
+    for (int i = 0; i < keys; i++) {
+      declared.add(new Key<>("backend." + i + ".port", port));
+      values.add(Integer.valueOf(1024 + i));
+      raw.put("backend." + i + ".port", Integer.toString(1024 + i));
+      declared.add(new Key<>("backend." + i + ".timeout", duration));
+      values.add(new Quantity<>((long) (i % 60), Duration.Unit.s));
+      raw.put("backend." + i + ".timeout", (i % 60) + "s");
+      declared.add(new Key<>("backend." + i + ".unit", unit));
+      values.add(TimeUnit.MILLISECONDS);
+      raw.put("backend." + i + ".unit", "MILLISECONDS");
+      declared.add(new Key<>("backend." + i + ".host", string));
+      values.add("backend-" + i + ".example.com");
+      raw.put("backend." + i + ".host", "backend-" + i + ".example.com");
+    }
+    source = new MapSource(ImmutableMap.copyOf(raw));
+    file = Files.createTempFile("blazon-bench", ".bin");
+    SnapshotFile.write(file, source, new ConfigSnapshot(declared, values.toArray()));
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteFile() throws IOException {
+    Files.delete(file);
+  }
+
+  @Benchmark
+  public ConfigSnapshot parse() {
+    return new ConfigSnapshot(source, declared);
+  }
+
+  @Benchmark
+  public ConfigSnapshot snapshotFile() {
+    return SnapshotFile.load(file, source, declared);
+  }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import net.revelc.code.blazon.sources.MapSource;
+import net.revelc.code.blazon.types.network.Port;
+import net.revelc.code.blazon.types.units.Duration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of validating a whole configuration with a {@link Validator}, in a
+ * single-threaded pool and in a pool with one thread per processor, where one key in a hundred is
+ * invalid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ValidatorBenchmark {
+
+  @Param("5000")
+  public int keys;
+
+  private ForkJoinPool single;
+  private ForkJoinPool parallel;
+  private Validator sequential;
+  private Validator concurrent;
+  private MapSource source;
+
+  /**
+   * Declare the keys, and create a source with values for all of them.
+   */
+  @Setup(Level.Trial)
+  public void createValidators() {
+    final List<Key<?>> declared = new ArrayList<>();
+    final Map<String, String> raw = new HashMap<>();
+    for (int i = 0; i < keys; i++) {
+      declared.add(new Key<>("backend." + i + ".port", Port.USER));
+      raw.put("backend." + i + ".port", i % 100 == 0 ? "80" : Integer.toString(1024 + i));
+      declared.add(new Key<>("backend." + i + ".timeout", Duration.NON_NEGATIVE));
+      raw.put("backend." + i + ".timeout", (i % 60) + "s");
+    }
+    source = new MapSource(ImmutableMap.copyOf(raw));
+    single = new ForkJoinPool(1);
+    parallel = new ForkJoinPool();
+    sequential = new Validator(single, declared);
+    concurrent = new Validator(parallel, declared);
+  }
+
+  @TearDown(Level.Trial)
+  public void shutdown() {
+    single.shutdown();
+    parallel.shutdown();
+  }
+
+  @Benchmark
+  public ValidationReport sequential() {
+    return sequential.validate(source);
+  }
+
+  @Benchmark
+  public ValidationReport parallel() {
+    return concurrent.validate(source);
+  }
+
+}
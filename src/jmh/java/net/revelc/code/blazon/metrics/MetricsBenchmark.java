@@ -0,0 +1,99 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.metrics;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.TimeUnit;
+import net.revelc.code.blazon.Key;
+import net.revelc.code.blazon.sources.MapSource;
+import net.revelc.code.blazon.types.network.Port;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of {@link Metrics} on {@link Key#getValue} and {@link Key#getInt}, with
+ * metrics disabled and enabled, with one thread and with eight threads recording into the same
+ * counters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MetricsBenchmark {
+
+  @Param({"false", "true"})
+  public boolean enabled;
+
+  private final Key<Integer> port = new Key<>("server.port", Port.ANY);
+  private final Key<Integer> missingPort = new Key<>("client.port", Port.ANY, 9999);
+  private final MapSource source = new MapSource(ImmutableMap.of("server.port", "8080"));
+
+  /**
+   * Enable or disable metrics for the trial.
+   */
+  @Setup(Level.Trial)
+  public void setEnabled() {
+    Metrics.reset();
+    if (enabled) {
+      Metrics.enable();
+    } else {
+      Metrics.disable();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void disable() {
+    Metrics.disable();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Integer getValue() {
+    return port.getValue(source);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Integer getValueContended() {
+    return port.getValue(source);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int getInt() {
+    return port.getInt(source);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Integer defaultValue() {
+    return missingPort.getValue(source);
+  }
+
+}
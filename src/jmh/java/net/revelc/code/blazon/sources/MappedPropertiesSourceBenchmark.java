@@ -0,0 +1,140 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import net.revelc.code.blazon.Source;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the time to open a large properties file and read one value from it, using
+ * {@link MappedPropertiesSource} and {@link PropertiesSource}. Run with <code>-prof gc</code> to
+ * compare the heap allocated by each; nearly all of it is retained by {@link PropertiesSource}.
+ *
+ * <div>JMH doesn't measure the heap retained by a result, so the {@link #main(String[])} method of
+ * this class does, as the heap used after a full collection with each source loaded, less the heap
+ * used before it was loaded. Run it with the same <code>-Xmx2g</code> as the benchmarks.</div>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class MappedPropertiesSourceBenchmark {
+
+  @Param("500000")
+  public int entries;
+
+  private Path file;
+  private String lastKey;
+
+  /**
+   * Write a properties file with the configured number of entries.
+   */
+  @Setup(Level.Trial)
+  public void writeFile() throws IOException {
+    file = Files.createTempFile("blazon-bench", ".properties");
+    try (BufferedWriter writer = Files.newBufferedWriter(file, ISO_8859_1)) {
+      for (int i = 0; i < entries; i++) {
+        writer.write("backend." + i + ".url = http://backend-" + i + ".example.com:8080/route\n");
+      }
+    }
+    lastKey = "backend." + (entries - 1) + ".url";
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteFile() throws IOException {
+    Files.delete(file);
+  }
+
+  @Benchmark
+  public Source<?> mapped() throws IOException {
+    final MappedPropertiesSource source = new MappedPropertiesSource(file);
+    source.getValue(lastKey);
+    return source;
+  }
+
+  @Benchmark
+  public Source<?> properties() throws IOException {
+    final Properties props = new Properties();
+    try (InputStream in = Files.newInputStream(file)) {
+      props.load(in);
+    }
+    final PropertiesSource source = new PropertiesSource(props);
+    source.getValue(lastKey);
+    return source;
+  }
+
+  /**
+   * Print the heap retained by each source, for a file with the given number of entries.
+   *
+   * @param args the number of entries, which defaults to 500000
+   * @throws IOException if the file can't be written or read
+   */
+  public static void main(final String[] args) throws IOException {
+    final MappedPropertiesSourceBenchmark benchmark = new MappedPropertiesSourceBenchmark();
+    benchmark.entries = args.length > 0 ? Integer.parseInt(args[0]) : 500000;
+    benchmark.writeFile();
+    try {
+      long before = usedAfterGc();
+      Source<?> source = benchmark.mapped();
+      final long mapped = usedAfterGc() - before;
+      // keep the source reachable until it has been measured
+      source.getValue(benchmark.lastKey);
+
+      source = null;
+      before = usedAfterGc();
+      source = benchmark.properties();
+      final long properties = usedAfterGc() - before;
+      source.getValue(benchmark.lastKey);
+
+      System.out.printf("%,d entries retained %,d bytes in a MappedPropertiesSource, "
+          + "and %,d bytes in a PropertiesSource%n", benchmark.entries, mapped, properties);
+    } finally {
+      benchmark.deleteFile();
+    }
+  }
+
+  private static long usedAfterGc() {
+    // a single collection may not reclaim everything which is unreachable
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+}
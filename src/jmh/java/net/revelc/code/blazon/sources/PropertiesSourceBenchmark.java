@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares concurrent lookups in a {@link PropertiesSource} which synchronizes on its
+ * {@link Properties} with lookups in one created by {@link PropertiesSource#frozen(Properties)},
+ * with 1, 8, and 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PropertiesSourceBenchmark {
+
+  private static final int KEYS = 1024;
+
+  private PropertiesSource synchronizedSource;
+  private PropertiesSource frozenSource;
+  private String[] keys;
+
+  /**
+   * Create the sources, with half of the keys in the defaults.
+   */
+  @Setup
+  public void createSources() {
+    final Properties defaults = new Properties();
+    final Properties props = new Properties(defaults);
+    keys = new String[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = "server" + i + ".port";
+      (i % 2 == 0 ? props : defaults).setProperty(keys[i], Integer.toString(i));
+    }
+    synchronizedSource = new PropertiesSource(props);
+    frozenSource = PropertiesSource.frozen(props);
+  }
+
+  /**
+   * The index of the next key read by each thread.
+   */
+  @State(Scope.Thread)
+  public static class Cursor {
+    private int next;
+
+    private String nextKey(final String[] keys) {
+      next = (next + 1) & (KEYS - 1);
+      return keys[next];
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public String synchronized1(final Cursor cursor) {
+    return synchronizedSource.getValue(cursor.nextKey(keys));
+  }
+
+  @Benchmark
+  @Threads(8)
+  public String synchronized8(final Cursor cursor) {
+    return synchronizedSource.getValue(cursor.nextKey(keys));
+  }
+
+  @Benchmark
+  @Threads(64)
+  public String synchronized64(final Cursor cursor) {
+    return synchronizedSource.getValue(cursor.nextKey(keys));
+  }
+
+  @Benchmark
+  @Threads(1)
+  public String frozen1(final Cursor cursor) {
+    return frozenSource.getValue(cursor.nextKey(keys));
+  }
+
+  @Benchmark
+  @Threads(8)
+  public String frozen8(final Cursor cursor) {
+    return frozenSource.getValue(cursor.nextKey(keys));
+  }
+
+  @Benchmark
+  @Threads(64)
+  public String frozen64(final Cursor cursor) {
+    return frozenSource.getValue(cursor.nextKey(keys));
+  }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import net.revelc.code.blazon.Source;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares listing the keys of one backend among many, with {@link Source#subset(String)} on a
+ * frozen {@link PropertiesSource}, and by scanning every property name for the prefix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SubsetBenchmark {
+
+  @Param("1000")
+  public int backends;
+
+  private Properties props;
+  private PropertiesSource source;
+  private String prefix;
+
+  /**
+   * Create the properties of each backend.
+   */
+  @Setup
+  public void createSource() {
+    props = new Properties();
+    for (int i = 0; i < backends; i++) {
+      props.setProperty("backend." + i + ".host", "backend-" + i + ".example.com");
+      props.setProperty("backend." + i + ".port", Integer.toString(1024 + i));
+      props.setProperty("backend." + i + ".timeout", "30s");
+    }
+    source = PropertiesSource.frozen(props);
+    prefix = "backend." + (backends / 2) + ".";
+  }
+
+  @Benchmark
+  public List<String> subset() {
+    return source.subset(prefix).keys();
+  }
+
+  @Benchmark
+  public List<String> scan() {
+    final List<String> found = new ArrayList<>();
+    for (final String name : props.stringPropertyNames()) {
+      if (name.startsWith(prefix)) {
+        found.add(name.substring(prefix.length()));
+      }
+    }
+    return found;
+  }
+
+}
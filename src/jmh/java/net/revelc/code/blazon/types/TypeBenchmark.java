@@ -0,0 +1,135 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.types;
+
+import java.util.concurrent.TimeUnit;
+import net.revelc.code.blazon.types.network.Port;
+import net.revelc.code.blazon.types.numeric.IntegerType;
+import net.revelc.code.blazon.types.numeric.LongRangeType;
+import net.revelc.code.blazon.types.strings.OneOf;
+import net.revelc.code.blazon.types.strings.StringType;
+import net.revelc.code.blazon.types.units.Duration;
+import net.revelc.code.blazon.types.units.Duration.Unit;
+import net.revelc.code.blazon.types.units.Quantity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link net.revelc.code.blazon.Type#parse(String)} for each shipped type, and
+ * {@link Quantity#compareTo(Quantity)} with and without unit conversion. The inputs are held in
+ * non-final fields so they are not constant-folded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TypeBenchmark {
+
+  private final LongRangeType longRange =
+      new LongRangeType(-1_000_000_000_000L, 1_000_000_000_000L);
+  private final OneOf<TimeUnit> oneOf = new OneOf<>(TimeUnit.class);
+  private final OneOf<TimeUnit> oneOfIgnoringCase = new OneOf<>(TimeUnit.class, false);
+  private final StringType string = new StringType();
+
+  private String bin = "1111111111111111";
+  private String oct = "177777";
+  private String dec = " 65535 ";
+  private String hex = "ffff";
+  private String longValue = "-123456789012";
+  private String port = "8080";
+  private String enumName = "SECONDS";
+  private String enumNameWrongCase = "seconds";
+  private String text = "  some text  ";
+  private String duration = "30s";
+
+  private Quantity<Long, Unit> seconds = new Quantity<>(90L, Unit.s);
+  private Quantity<Long, Unit> otherSeconds = new Quantity<>(120L, Unit.s);
+  private Quantity<Long, Unit> minutes = new Quantity<>(2L, Unit.m);
+
+  @Benchmark
+  public Integer integerBin() {
+    return IntegerType.BIN.parse(bin);
+  }
+
+  @Benchmark
+  public Integer integerOct() {
+    return IntegerType.OCT.parse(oct);
+  }
+
+  @Benchmark
+  public Integer integerDec() {
+    return IntegerType.DEC.parse(dec);
+  }
+
+  @Benchmark
+  public Integer integerHex() {
+    return IntegerType.HEX.parse(hex);
+  }
+
+  @Benchmark
+  public Long longRange() {
+    return longRange.parse(longValue);
+  }
+
+  @Benchmark
+  public Integer port() {
+    return Port.ANY.parse(port);
+  }
+
+  @Benchmark
+  public TimeUnit oneOf() {
+    return oneOf.parse(enumName);
+  }
+
+  @Benchmark
+  public TimeUnit oneOfIgnoringCase() {
+    return oneOfIgnoringCase.parse(enumNameWrongCase);
+  }
+
+  @Benchmark
+  public String string() {
+    return string.parse(text);
+  }
+
+  @Benchmark
+  public Quantity<Long, Unit> duration() {
+    return Duration.NON_NEGATIVE.parse(duration);
+  }
+
+  @Benchmark
+  public int compareSameUnit() {
+    return seconds.compareTo(otherSeconds);
+  }
+
+  @Benchmark
+  public int compareDifferentUnits() {
+    return seconds.compareTo(minutes);
+  }
+
+  @Benchmark
+  public long toNanos() {
+    return Duration.toNanos(minutes);
+  }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.types.units;
+
+import com.google.common.base.Joiner;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import net.revelc.code.blazon.types.units.Duration.Unit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares parsing a {@link Duration} with the shared {@link UnitSuffixes} matcher against the
+ * previous implementation, which compiled a pattern and scanned the unit enum on every parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class QuantityTypeBenchmark {
+
+  @Param({"30s", "100 ms", "42", "1000ns", " 3 D "})
+  public String raw;
+
+  @Benchmark
+  public Quantity<Long, Unit> suffixMatcher() {
+    return Duration.NON_NEGATIVE.parse(raw);
+  }
+
+  @Benchmark
+  public Quantity<Long, Unit> compiledPatternPerParse() {
+    final String normalized = raw.trim();
+    final Matcher matcher =
+        Pattern.compile("^(.*?)(" + Joiner.on('|').join(Unit.class.getEnumConstants()) + ")?$",
+            Pattern.DOTALL | Pattern.CASE_INSENSITIVE).matcher(normalized);
+    if (!matcher.find()) {
+      throw new AssertionError();
+    }
+    final String unitPart = matcher.group(2);
+    final Unit unit = unitPart == null ? Unit.s : findUnit(unitPart);
+    return new Quantity<Long, Unit>(Long.parseLong(matcher.group(1).trim()), unit);
+  }
+
+  private static Unit findUnit(final String raw) {
+    try {
+      return Enum.valueOf(Unit.class, raw);
+    } catch (final IllegalArgumentException e) {
+      for (final Unit u : Unit.class.getEnumConstants()) {
+        if (u.name().equalsIgnoreCase(raw)) {
+          return u;
+        }
+      }
+      throw e;
+    }
+  }
+
+}
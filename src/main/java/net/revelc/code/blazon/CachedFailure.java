@@ -0,0 +1,64 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.lang.reflect.Constructor;
+
+/**
+ * A remembered {@link RuntimeException}, which is reported again by throwing a new exception each
+ * time, rather than rethrowing the remembered instance. A shared instance would carry the stack
+ * trace of the first caller to every later one, and callers which add suppressed exceptions or
+ * causes to it would change it for every other thread. Each new exception has the same class and
+ * message as the remembered one, which is its cause, if its class has a public constructor which
+ * takes only a message; otherwise, it is an {@link UncheckedExecutionException} caused by it.
+ */
+final class CachedFailure {
+
+  private final RuntimeException exception;
+  private final Constructor<? extends RuntimeException> constructor;
+
+  CachedFailure(final RuntimeException exception) {
+    this.exception = exception;
+    this.constructor = constructorOf(exception.getClass());
+  }
+
+  private static <E extends RuntimeException> Constructor<E> constructorOf(final Class<E> type) {
+    try {
+      return type.getConstructor(String.class);
+    } catch (final NoSuchMethodException | SecurityException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Create a new exception which reports the remembered one, to be thrown by the caller.
+   *
+   * @return the new exception
+   */
+  RuntimeException newException() {
+    if (constructor != null) {
+      try {
+        final RuntimeException copy = constructor.newInstance(exception.getMessage());
+        copy.initCause(exception);
+        return copy;
+      } catch (final ReflectiveOperationException | RuntimeException e) {
+        // not constructible, or it sets its own cause; wrap it instead
+      }
+    }
+    return new UncheckedExecutionException(exception.getMessage(), exception);
+  }
+
+}
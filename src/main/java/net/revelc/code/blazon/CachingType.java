@@ -0,0 +1,135 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * A {@link Type} which remembers the results of another, pure, {@link Type}, for configurations in
+ * which the same raw values are parsed over and over. The preconditions of the wrapped type are
+ * always checked, and the normalized value they produce is used to find the result of conversion
+ * and postcondition checks in a bounded, concurrent cache, which evicts the least recently used
+ * entries when it is full. A {@link RuntimeException} thrown by the conversion or the postcondition
+ * checks is cached too. When the same value is parsed again, a new exception of the same class,
+ * with the same message, is thrown, whose cause is the cached one.
+ *
+ * @param <T> the target Java type which this class represents
+ */
+public final class CachingType<T> extends Type<T> {
+
+  private static final class Result<T> {
+    private final Optional<T> value;
+    private final CachedFailure failure;
+
+    private Result(final Optional<T> value, final CachedFailure failure) {
+      this.value = value;
+      this.failure = failure;
+    }
+  }
+
+  private final Type<T> type;
+  private final Cache<String, Result<T>> cache;
+
+  private CachingType(final Type<T> type, final long maxEntries) {
+    this.type = type;
+    this.cache = CacheBuilder.newBuilder().maximumSize(maxEntries).recordStats().build();
+  }
+
+  /**
+   * Wrap a pure {@link Type} with a cache of its results.
+   *
+   * @param type the type whose results are to be cached
+   * @param maxEntries the maximum number of distinct values to remember
+   * @return a new caching type, with an empty cache
+   * @throws IllegalArgumentException if the type is not pure, or the maximum is not positive
+   */
+  public static <T> CachingType<T> of(final Type<T> type, final long maxEntries) {
+    Preconditions.checkNotNull(type);
+    Preconditions.checkArgument(type.isPure(), "%s is not a pure type", type.getClass().getName());
+    Preconditions.checkArgument(maxEntries > 0, "maxEntries must be positive: %s", maxEntries);
+    return new CachingType<>(type, maxEntries);
+  }
+
+  /**
+   * Get the type whose results are cached.
+   *
+   * @return the wrapped type
+   */
+  public Type<T> getType() {
+    return type;
+  }
+
+  /**
+   * Get the number of cache hits, misses, and evictions since this type was created.
+   *
+   * @return a snapshot of the cache statistics
+   */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /**
+   * Discard all cached results.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  @Override
+  protected Optional<String> checkPreconditions(final Optional<String> raw) {
+    return type.checkPreconditions(raw);
+  }
+
+  @Override
+  protected Optional<T> convert(final String normalized) {
+    Result<T> result = cache.getIfPresent(normalized);
+    if (result == null) {
+      // pure types can be safely converted more than once by racing threads
+      result = compute(normalized);
+      cache.put(normalized, result);
+    }
+    if (result.failure != null) {
+      throw result.failure.newException();
+    }
+    return result.value;
+  }
+
+  private Result<T> compute(final String normalized) {
+    try {
+      final Optional<T> converted = type.convert(normalized);
+      if (!converted.isPresent()) {
+        return new Result<>(converted, null);
+      }
+      return new Result<>(type.checkPostconditions(converted.get()), null);
+    } catch (final RuntimeException e) {
+      return new Result<>(null, new CachedFailure(e));
+    }
+  }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
+
+  @Override
+  public String description() {
+    return type.description();
+  }
+
+}
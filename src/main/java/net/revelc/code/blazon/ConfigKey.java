@@ -0,0 +1,82 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that a method of a configuration interface returns the value of a {@link Key}. For each
+ * interface with such methods, the {@link net.revelc.code.blazon.processor.ConfigKeyProcessor},
+ * when a build enables it, generates a final class named after the interface with the suffix
+ * <code>_Blazon</code>. That class declares a {@link Key} constant for each method. Its static
+ * <code>load(Source)</code> method resolves all of the keys together and stores their values in
+ * final fields, so each accessor is a plain field read. For example:
+ *
+ * <pre>
+ * interface ServerConfig {
+ *   &#64;ConfigKey(value = "server.port", type = Port.class, field = "ANY")
+ *   int port();
+ *
+ *   &#64;ConfigKey(value = "server.name", type = StringType.class, defaultValue = "main")
+ *   String name();
+ * }
+ *
+ * ServerConfig config = ServerConfig_Blazon.load(source);
+ * </pre>
+ *
+ * <div>Every abstract method of the interface must be annotated, and take no parameters. Methods
+ * which return primitives require a value or a default value when they are loaded.</div>
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.METHOD)
+public @interface ConfigKey {
+
+  /**
+   * The name of the key in the {@link Source}.
+   *
+   * @return the name of the key
+   */
+  String value();
+
+  /**
+   * The class of the key's {@link Type}, which must have a public constructor without parameters,
+   * or the class which declares the {@link #field()} holding the key's type.
+   *
+   * @return the class of the type, or the class which holds it
+   */
+  Class<?> type();
+
+  /**
+   * The name of a public static field of {@link #type()} which holds the key's {@link Type}, or
+   * empty to create a new instance of {@link #type()}.
+   *
+   * @return the name of the field, or empty
+   */
+  String field() default "";
+
+  /**
+   * The default value, in the same raw form as it would have in the {@link Source}, which is parsed
+   * by the key's type when the generated class is initialized. At most one value may be given.
+   *
+   * @return the raw default value, or empty if the key has no default value
+   */
+  String[] defaultValue() default {};
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * An immutable set of values, resolved once from a {@link Source} for a declared set of
+ * {@link Key}s. Every value is parsed and validated when the snapshot is created, and stored in a
+ * flat array with one slot per key. The slot of a key is found in a small open-addressing table
+ * keyed by the identity of the key, so {@link #get(Key)} needs no string hashing or parsing.
+ * Because it is immutable, a snapshot can be safely shared between threads.
+ *
+ * <div>The raw values are fetched with a single call to
+ * {@link Source#getValues(java.util.Collection)}, and each is parsed as described in
+ * {@link Key#parseRawValue(String, Object)}. See
+ * {@link Keys#resolveAll(Source, ForkJoinPool, Iterable)} to parse a large set of keys in
+ * parallel, and {@link LazySnapshot} to parse only the keys which are read.</div>
+ */
+public final class ConfigSnapshot {
+
+  private final ImmutableList<Key<?>> keys;
+  private final SlotTable slots;
+  // the value of each key, in the same order as the keys
+  private final Object[] values;
+
+  /**
+   * Resolve the given keys from the source.
+   *
+   * @param source the source of raw values
+   * @param keys the keys to resolve
+   * @throws RuntimeException any exception thrown while parsing and validating a key's value
+   */
+  public ConfigSnapshot(final Source<?> source, final Key<?>... keys) {
+    this(source, Arrays.asList(keys));
+  }
+
+  /**
+   * Resolve the given keys from the source.
+   *
+   * @param source the source of raw values
+   * @param keys the keys to resolve
+   * @throws RuntimeException any exception thrown while parsing and validating a key's value
+   */
+  public ConfigSnapshot(final Source<?> source, final Iterable<? extends Key<?>> keys) {
+    this(source, keys, null);
+  }
+
+  ConfigSnapshot(final Source<?> source, final Iterable<? extends Key<?>> keys,
+      final ForkJoinPool pool) {
+    this(keys);
+    Preconditions.checkNotNull(source);
+    resolveAll(source.getValues(names(this.keys)), pool);
+  }
+
+  /**
+   * Parse the given raw values, which were already fetched for the keys.
+   */
+  ConfigSnapshot(final Iterable<? extends Key<?>> keys, final Map<String, String> raw) {
+    this(keys);
+    resolveAll(raw, null);
+  }
+
+  // lays out the slots of the keys, without resolving any values
+  private ConfigSnapshot(final Iterable<? extends Key<?>> keys) {
+    final Set<Key<?>> distinct = new LinkedHashSet<>();
+    for (final Key<?> key : keys) {
+      distinct.add(Preconditions.checkNotNull(key));
+    }
+    this.keys = ImmutableList.copyOf(distinct);
+    this.slots = new SlotTable(this.keys);
+    this.values = new Object[this.keys.size()];
+  }
+
+  /**
+   * Create a snapshot from values which were already parsed and validated, such as by
+   * {@link SnapshotFile}, without parsing anything. The values are copied before the constructor
+   * returns, so the snapshot is safely published like any other.
+   *
+   * @param keys the distinct keys
+   * @param values the value of each key, in the same order
+   */
+  ConfigSnapshot(final List<Key<?>> keys, final Object[] values) {
+    this(keys);
+    Preconditions.checkArgument(this.keys.size() == keys.size(), "Duplicate keys");
+    Preconditions.checkArgument(keys.size() == values.length);
+    System.arraycopy(values, 0, this.values, 0, values.length);
+  }
+
+  static List<String> names(final List<Key<?>> keys) {
+    final List<String> names = new ArrayList<>(keys.size());
+    for (final Key<?> key : keys) {
+      names.add(key.getKey());
+    }
+    return names;
+  }
+
+  private void resolveAll(final Map<String, String> raw, final ForkJoinPool pool) {
+    if (pool == null) {
+      resolve(raw, 0, keys.size());
+    } else {
+      pool.invoke(new Resolver(raw, 0, keys.size()));
+    }
+  }
+
+  private void resolve(final Map<String, String> raw, final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      final Key<?> key = keys.get(i);
+      values[i] = key.resolve(raw.get(key.getKey()));
+    }
+  }
+
+  /**
+   * Parses the raw values of a range of keys in a {@link ForkJoinPool}, splitting the range in half
+   * until it is small enough to parse directly.
+   */
+  private final class Resolver extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private static final int THRESHOLD = 32;
+
+    private final transient Map<String, String> raw;
+    private final int start;
+    private final int end;
+
+    private Resolver(final Map<String, String> raw, final int start, final int end) {
+      this.raw = raw;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= THRESHOLD) {
+        resolve(raw, start, end);
+      } else {
+        final int middle = (start + end) >>> 1;
+        invokeAll(new Resolver(raw, start, middle), new Resolver(raw, middle, end));
+      }
+    }
+  }
+
+  /**
+   * Get the keys in this snapshot, in the order they were declared.
+   *
+   * @return the keys
+   */
+  public ImmutableList<Key<?>> getKeys() {
+    return keys;
+  }
+
+  /**
+   * Check whether the key was resolved in this snapshot.
+   *
+   * @param key the key
+   * @return true if the key is in this snapshot
+   */
+  public boolean contains(final Key<?> key) {
+    return slots.slotOf(key) >= 0;
+  }
+
+  /**
+   * Get the value which was resolved for the key when this snapshot was created.
+   *
+   * @param key the key
+   * @return the value, which is null if the key had no value and no default value
+   * @throws IllegalArgumentException if the key is not in this snapshot
+   */
+  public <T> T get(final Key<T> key) {
+    final int slot = slots.slotOf(key);
+    if (slot < 0) {
+      throw new IllegalArgumentException("Key " + key.getKey() + " is not in this snapshot");
+    }
+    @SuppressWarnings("unchecked")
+    final T value = (T) values[slot];
+    return value;
+  }
+
+  /**
+   * Get the value which was resolved for the key when this snapshot was created, which must not be
+   * null.
+   *
+   * @param key the key
+   * @return the value
+   * @throws IllegalArgumentException if the key is not in this snapshot
+   * @throws IllegalStateException if the key had no value and no default value
+   */
+  public <T> T getRequired(final Key<T> key) {
+    final T value = get(key);
+    if (value == null) {
+      throw new IllegalStateException("No value or default value for key " + key.getKey());
+    }
+    return value;
+  }
+
+}
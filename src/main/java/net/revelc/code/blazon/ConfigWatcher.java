@@ -0,0 +1,227 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Notifies listeners when the values of watched {@link Key}s change in a {@link Source}. Each call
+ * to {@link #refresh()} fetches the raw values of the watched keys in one batch, re-parses only the
+ * keys whose raw values changed, and notifies only the listeners of keys whose parsed values are no
+ * longer {@link Object#equals(Object) equal} to their previous values.
+ *
+ * <div>Notifications are dispatched on the given {@link Executor}. The listeners of each key are
+ * notified by at most one task at a time, in order, and with the latest value when the task runs,
+ * so a burst of changes results in as few notifications as possible, and a listener never sees an
+ * older value after a newer one. Listeners of different keys may be notified concurrently.</div>
+ */
+public final class ConfigWatcher {
+
+  /**
+   * The state of one watched key, and its listeners.
+   */
+  private final class Watch<T> {
+    private final Key<T> key;
+    private final List<Consumer<? super T>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean running = new AtomicBoolean();
+    // only read and written while holding the lock on the watcher
+    private String raw;
+    private volatile T value;
+    // only read and written by the single running notification task
+    private T delivered;
+
+    private Watch(final Key<T> key) {
+      this.key = key;
+      this.raw = source.getValue(key.getKey());
+      this.value = key.resolve(raw);
+      this.delivered = value;
+    }
+
+    // returns true if the parsed value changed
+    private boolean update(final String newRaw) {
+      if (Objects.equal(raw, newRaw)) {
+        return false;
+      }
+      final T newValue = key.resolve(newRaw);
+      raw = newRaw;
+      if (Objects.equal(value, newValue)) {
+        return false;
+      }
+      value = newValue;
+      dirty.set(true);
+      schedule();
+      return true;
+    }
+
+    private void schedule() {
+      if (running.compareAndSet(false, true)) {
+        try {
+          executor.execute(this::drain);
+        } catch (final RuntimeException e) {
+          // such as a RejectedExecutionException; let a later change schedule it again
+          running.set(false);
+          throw e;
+        }
+      }
+    }
+
+    private void drain() {
+      RuntimeException failure = null;
+      try {
+        while (dirty.getAndSet(false)) {
+          final T current = value;
+          if (!Objects.equal(current, delivered)) {
+            delivered = current;
+            for (final Consumer<? super T> listener : listeners) {
+              try {
+                listener.accept(current);
+              } catch (final RuntimeException e) {
+                if (failure == null) {
+                  failure = e;
+                } else {
+                  failure.addSuppressed(e);
+                }
+              }
+            }
+          }
+        }
+      } finally {
+        running.set(false);
+      }
+      // a change may have arrived after the loop ended, but before running was cleared
+      if (dirty.get()) {
+        schedule();
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+
+  private final Source<?> source;
+  private final Executor executor;
+  // only read and written while holding the lock on the watcher
+  private final Map<Key<?>, Watch<?>> watches = new LinkedHashMap<>();
+  private long checkedGeneration = Source.UNVERSIONED;
+
+  /**
+   * Create a watcher for the given source.
+   *
+   * @param source the source of raw values
+   * @param executor the executor on which listeners are notified
+   */
+  public ConfigWatcher(final Source<?> source, final Executor executor) {
+    this.source = Preconditions.checkNotNull(source);
+    this.executor = Preconditions.checkNotNull(executor);
+  }
+
+  /**
+   * Start notifying the listener when the value of the key changes. The listener is not notified
+   * of the current value, which is returned instead.
+   *
+   * @param key the key to watch
+   * @param listener the listener to notify with each new value; the values may be null
+   * @return the current value of the key
+   * @throws RuntimeException any exception thrown while parsing and validating the key's value, if
+   *         it was not already watched
+   */
+  public synchronized <T> T watch(final Key<T> key, final Consumer<? super T> listener) {
+    Preconditions.checkNotNull(listener);
+    @SuppressWarnings("unchecked")
+    Watch<T> watch = (Watch<T>) watches.get(Preconditions.checkNotNull(key));
+    if (watch == null) {
+      watch = new Watch<>(key);
+      watches.put(key, watch);
+    }
+    watch.listeners.add(listener);
+    return watch.value;
+  }
+
+  /**
+   * Stop notifying the listener of changes to the value of the key.
+   *
+   * @param key the watched key
+   * @param listener the listener
+   * @return true if the listener was watching the key
+   */
+  public synchronized boolean unwatch(final Key<?> key, final Consumer<?> listener) {
+    final Watch<?> watch = watches.get(key);
+    if (watch == null || !watch.listeners.remove(listener)) {
+      return false;
+    }
+    if (watch.listeners.isEmpty()) {
+      watches.remove(key);
+    }
+    return true;
+  }
+
+  /**
+   * Check the source for changes to the values of the watched keys, and notify the listeners of
+   * any which changed. This should be called whenever the source may have changed, such as by a
+   * listener added with
+   * {@link net.revelc.code.blazon.sources.ReloadingFileSource#addListener(Runnable)}. If the new
+   * raw value of a key can't be parsed, the key keeps its previous value, and it is parsed again by
+   * the next refresh. If the source tracks its {@link Source#getGeneration() generation}, and it
+   * hasn't changed since the last successful refresh, nothing is fetched.
+   *
+   * @return the number of keys whose values changed
+   * @throws RuntimeException the first exception thrown while parsing and validating a changed
+   *         value, or by the executor while scheduling a notification, such as a
+   *         {@link java.util.concurrent.RejectedExecutionException}, after all other keys have been
+   *         updated; a rejected notification is scheduled again by the next change of the key
+   */
+  public synchronized int refresh() {
+    final long generation = source.getGeneration();
+    if (generation != Source.UNVERSIONED && generation == checkedGeneration) {
+      return 0;
+    }
+    final List<String> names = new ArrayList<>(watches.size());
+    for (final Key<?> key : watches.keySet()) {
+      names.add(key.getKey());
+    }
+    final Map<String, String> raw = source.getValues(names);
+    RuntimeException failure = null;
+    int changed = 0;
+    for (final Watch<?> watch : watches.values()) {
+      try {
+        if (watch.update(raw.get(watch.key.getKey()))) {
+          changed++;
+        }
+      } catch (final RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    checkedGeneration = generation;
+    return changed;
+  }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+/**
+ * A {@link Type} whose values are integers, which can also be parsed directly to a primitive
+ * <code>int</code>, without the intermediate objects and boxing of {@link Type#parse(String)}. Both
+ * paths must apply the same normalization, conversion, and constraints.
+ *
+ * @see Key#getInt(Source)
+ */
+public interface IntType {
+
+  /**
+   * Check whether the raw value is present, after normalization. A value which is not present is
+   * one for which {@link Type#parse(String)} would return null.
+   *
+   * @param raw the raw value, which may be null
+   * @return true if the value is present and can be passed to {@link #parseAsInt(CharSequence)}
+   */
+  boolean isPresent(final CharSequence raw);
+
+  /**
+   * Parse the raw value, which must be present, as a primitive <code>int</code>.
+   *
+   * @param raw the raw value, which must be present according to {@link #isPresent(CharSequence)}
+   * @return the value, after validation, conversion, and applying any post-conversion constraints
+   */
+  int parseAsInt(final CharSequence raw);
+
+  /**
+   * Check whether {@link #parseAsInt(CharSequence)} and {@link #isPresent(CharSequence)} are
+   * equivalent to {@link Type#parse(String)} for this instance. {@link Key} only takes the
+   * primitive path when this is true, so implementations which can be subclassed should return
+   * false for subclasses which change how values are normalized, converted, or checked. This
+   * returns true by default.
+   *
+   * @return true if the primitive path can be used in place of {@link Type#parse(String)}
+   */
+  default boolean hasEquivalentPrimitivePath() {
+    return true;
+  }
+
+}
@@ -16,6 +16,10 @@ package net.revelc.code.blazon;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.revelc.code.blazon.metrics.Metrics;
+import net.revelc.code.blazon.metrics.ParseMetrics;
 
 /**
  * A representation of a configuration property or key, which corresponds to a distinct type (or
@@ -28,9 +32,49 @@ import com.google.common.base.Preconditions;
  */
 public class Key<T> {
 
+  private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+  // whether a subclass overrides parseRawValue, which must then be called to parse its values
+  private static final ClassValue<Boolean> OVERRIDES_PARSE = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue(final Class<?> type) {
+      for (Class<?> c = type; c != Key.class; c = c.getSuperclass()) {
+        try {
+          c.getDeclaredMethod("parseRawValue", String.class, Object.class);
+          return true;
+        } catch (final NoSuchMethodException e) {
+          // keep looking in the superclass
+        }
+      }
+      return false;
+    }
+  };
+
+  /**
+   * The last value parsed by {@link Key#getValue(Source)}, and the source and generation it was
+   * parsed from. The source is weakly referenced, so a key which outlives a source doesn't keep it
+   * reachable.
+   */
+  private static final class Cached<T> {
+    private final WeakReference<Source<?>> source;
+    private final long generation;
+    private final T value;
+
+    private Cached(final Source<?> source, final long generation, final T value) {
+      this.source = new WeakReference<>(source);
+      this.generation = generation;
+      this.value = value;
+    }
+  }
+
   private final String key;
   private final Type<T> type;
   private final Optional<T> defaultValue;
+  private final int index;
+  // looked up on first use while metrics are enabled; a racing lookup finds the same instances
+  private ParseMetrics keyMetrics;
+  private ParseMetrics typeMetrics;
+  private volatile Cached<T> cached;
 
   /**
    * Create a new Key with the given identifier and type, so that its value can be retrieved and
@@ -62,6 +106,17 @@ public class Key<T> {
     this.key = Preconditions.checkNotNull(key);
     this.type = Preconditions.checkNotNull(type);
     this.defaultValue = defaultValue;
+    this.index = NEXT_INDEX.getAndIncrement();
+  }
+
+  /**
+   * An index, unique to this instance, assigned in order of creation, which snapshots use to hash
+   * keys into their slot tables without hashing the key's name.
+   *
+   * @return the index of this key
+   */
+  int index() {
+    return index;
   }
 
   /**
@@ -115,26 +170,247 @@ public class Key<T> {
    * @return an instance of the type this Key represents, after it has been parsed and validated
    */
   protected T parseRawValue(final String value, final T defaultValue) {
+    return parseDefault(value, defaultValue, true);
+  }
+
+  private T parseDefault(final String value, final T defaultValue, final boolean recorded) {
     final T defaultV = defaultValue;
     if (value == null && defaultV != null) {
+      if (recorded) {
+        recordFallback();
+      }
       return defaultV;
     }
     final T parsed = getType().parse(value);
     if (parsed == null) {
+      if (recorded) {
+        recordFallback();
+      }
       return defaultV;
     }
     return parsed;
   }
 
+  /**
+   * Parse a raw value like {@link #resolve(String)}, without recording anything in
+   * {@link Metrics}, so that checking candidate values, such as by {@link Validator} and
+   * {@link net.revelc.code.blazon.sources.ReloadingFileSource}, doesn't skew the metrics of the
+   * values which are actually read. Like {@link #resolve(String)}, this never reads or replaces the
+   * cached value of this key.
+   *
+   * @param raw the raw value, or null if it wasn't found
+   * @return an instance of the type this Key represents, after it has been parsed and validated
+   */
+  public T parseUnrecorded(final String raw) {
+    return OVERRIDES_PARSE.get(getClass()) ? parseRawValue(raw, getDefaultValue())
+        : parseDefault(raw, getDefaultValue(), false);
+  }
+
   /**
    * Retrieve a value from the given {@link Source}, using this {@link #getKey()}. While this method
    * can be overridden, it's preferred to override {@link #parseRawValue(String, Object)} instead.
    *
+   * <div>If the source tracks its {@link Source#getGeneration() generation}, the value is cached
+   * with the source and generation it was parsed from, and returned again without parsing until
+   * the generation changes, or it is read from another source. Only the last value is cached.
+   * Values returned from the cache are still recorded as reads by {@link Metrics}.</div>
+   *
    * @param source a source of {@link String} values arranged by {@link String} keys
    * @return an instance of the type this Key represents, after it has been parsed and validated
    */
   public T getValue(final Source<?> source) {
-    return parseRawValue(Preconditions.checkNotNull(source).getValue(getKey()), getDefaultValue());
+    // read the generation before the value, so a value is never cached with a later generation
+    final long generation = Preconditions.checkNotNull(source).getGeneration();
+    if (generation == Source.UNVERSIONED) {
+      return resolve(source.getValue(getKey()));
+    }
+    final boolean measured = Metrics.isEnabled();
+    final long start = measured ? System.nanoTime() : 0L;
+    final Cached<T> last = cached;
+    if (last != null && last.generation == generation && last.source.get() == source) {
+      if (measured) {
+        recordRead(start, false);
+      }
+      return last.value;
+    }
+    final T value = resolve(source.getValue(getKey()));
+    cached = new Cached<>(source, generation, value);
+    return value;
+  }
+
+  /**
+   * Parse a raw value which was already retrieved from a {@link Source} for this key, such as by
+   * {@link Source#getValues(java.util.Collection)}.
+   *
+   * Unlike {@link #getValue(Source)}, this never reads or replaces the cached value of this key. To
+   * validate candidate values without recording them in {@link Metrics}, use
+   * {@link #parseUnrecorded(String)} instead.
+   *
+   * @param raw the raw value, or null if it wasn't found
+   * @return an instance of the type this Key represents, after it has been parsed and validated
+   */
+  public T resolve(final String raw) {
+    if (!Metrics.isEnabled()) {
+      return parseRawValue(raw, getDefaultValue());
+    }
+    final long start = System.nanoTime();
+    final T value;
+    try {
+      value = parseRawValue(raw, getDefaultValue());
+    } catch (final RuntimeException e) {
+      recordRead(start, true);
+      throw e;
+    }
+    recordRead(start, false);
+    return value;
+  }
+
+  /**
+   * Retrieve a value from the given {@link Source} as a primitive <code>int</code>. This is
+   * equivalent to unboxing the result of {@link #getValue(Source)}, which must be an integer which
+   * fits in an <code>int</code>.
+   *
+   * <div>If the source is {@link Source#UNVERSIONED}, so its values aren't cached, the
+   * {@link Type} is an {@link IntType} with an
+   * {@link IntType#hasEquivalentPrimitivePath() equivalent primitive path}, and this key doesn't
+   * override {@link #parseRawValue(String, Object)}, the value is parsed without boxing.</div>
+   *
+   * @param source a source of {@link String} values arranged by {@link String} keys
+   * @return the value this Key represents, after it has been parsed and validated
+   * @throws IllegalStateException if there is no value and no default value
+   * @throws ClassCastException if the value is not an integer
+   * @throws ArithmeticException if the value doesn't fit in an <code>int</code>
+   */
+  public int getInt(final Source<?> source) {
+    final Type<T> type = getType();
+    if (type instanceof IntType && ((IntType) type).hasEquivalentPrimitivePath()
+        && isPrimitivePath(source)) {
+      final IntType intType = (IntType) type;
+      final String raw = Preconditions.checkNotNull(source).getValue(getKey());
+      if (!Metrics.isEnabled()) {
+        return resolveInt(intType, raw);
+      }
+      final long start = System.nanoTime();
+      final int value;
+      try {
+        value = resolveInt(intType, raw);
+      } catch (final RuntimeException e) {
+        recordRead(start, true);
+        throw e;
+      }
+      recordRead(start, false);
+      return value;
+    }
+    return Math.toIntExact(toLong(checkPresent(getValue(source))));
+  }
+
+  private int resolveInt(final IntType intType, final String raw) {
+    if (intType.isPresent(raw)) {
+      return intType.parseAsInt(raw);
+    }
+    recordFallback();
+    return Math.toIntExact(toLong(checkPresent(getDefaultValue())));
+  }
+
+  /**
+   * Retrieve a value from the given {@link Source} as a primitive <code>long</code>. This is
+   * equivalent to unboxing the result of {@link #getValue(Source)}, which must be an integer.
+   *
+   * <div>If the source is {@link Source#UNVERSIONED}, so its values aren't cached, the
+   * {@link Type} is a {@link LongValuedType} or an {@link IntType} with an equivalent primitive
+   * path, and this key doesn't override {@link #parseRawValue(String, Object)}, the value is parsed
+   * without boxing.</div>
+   *
+   * @param source a source of {@link String} values arranged by {@link String} keys
+   * @return the value this Key represents, after it has been parsed and validated
+   * @throws IllegalStateException if there is no value and no default value
+   * @throws ClassCastException if the value is not an integer
+   */
+  public long getLong(final Source<?> source) {
+    final Type<T> type = getType();
+    if (type instanceof LongValuedType && ((LongValuedType) type).hasEquivalentPrimitivePath()
+        && isPrimitivePath(source)) {
+      final LongValuedType longType = (LongValuedType) type;
+      final String raw = Preconditions.checkNotNull(source).getValue(getKey());
+      if (!Metrics.isEnabled()) {
+        return resolveLong(longType, raw);
+      }
+      final long start = System.nanoTime();
+      final long value;
+      try {
+        value = resolveLong(longType, raw);
+      } catch (final RuntimeException e) {
+        recordRead(start, true);
+        throw e;
+      }
+      recordRead(start, false);
+      return value;
+    }
+    if (type instanceof IntType) {
+      return getInt(source);
+    }
+    return toLong(checkPresent(getValue(source)));
+  }
+
+  // values of versioned sources are read through the cache, and overridden parsing is never skipped
+  private boolean isPrimitivePath(final Source<?> source) {
+    return Preconditions.checkNotNull(source).getGeneration() == Source.UNVERSIONED
+        && !OVERRIDES_PARSE.get(getClass());
+  }
+
+  // unboxes an integer, without truncating it
+  private static long toLong(final Object value) {
+    if (value instanceof Long || value instanceof Integer || value instanceof Short
+        || value instanceof Byte) {
+      return ((Number) value).longValue();
+    }
+    throw new ClassCastException(value.getClass().getName() + " is not an integer");
+  }
+
+  private long resolveLong(final LongValuedType longType, final String raw) {
+    if (longType.isPresent(raw)) {
+      return longType.parseAsLong(raw);
+    }
+    recordFallback();
+    return toLong(checkPresent(getDefaultValue()));
+  }
+
+  private void recordRead(final long start, final boolean failed) {
+    final long nanos = System.nanoTime() - start;
+    keyMetrics().recordRead(nanos, failed);
+    typeMetrics().recordRead(nanos, failed);
+  }
+
+  private void recordFallback() {
+    if (Metrics.isEnabled()) {
+      keyMetrics().recordFallback();
+      typeMetrics().recordFallback();
+    }
+  }
+
+  private ParseMetrics keyMetrics() {
+    ParseMetrics metrics = keyMetrics;
+    if (metrics == null) {
+      metrics = Metrics.forKey(getKey());
+      keyMetrics = metrics;
+    }
+    return metrics;
+  }
+
+  private ParseMetrics typeMetrics() {
+    ParseMetrics metrics = typeMetrics;
+    if (metrics == null) {
+      metrics = Metrics.forType(getType().getClass());
+      typeMetrics = metrics;
+    }
+    return metrics;
+  }
+
+  private T checkPresent(final T value) {
+    if (value == null) {
+      throw new IllegalStateException("No value or default value for key " + getKey());
+    }
+    return value;
   }
 
 }
@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A fixed set of {@link Key}s, indexed densely in the order they were declared, with a hash table
+ * of their names and a description of each. Registries are created by the classes which the
+ * {@link net.revelc.code.blazon.processor.ConfigKeyProcessor} generates, with the table computed
+ * at compile time, so creating one at startup only copies constants; no names are hashed until
+ * they are looked up. Descriptions are built at run time, because building them at compile time
+ * would run the {@link Type}s inside the compiler; each is built the first time it is looked up,
+ * and kept.
+ *
+ * <div>The table is a hash-and-displace perfect hash: each name's first hash selects a bucket,
+ * and the bucket's displacement seeds its second hash, which selects its slot. The processor
+ * searches for displacements which place every name in a distinct slot, so a lookup normally takes
+ * one probe, and at most one comparison of a name. Tables which could not be made perfect are
+ * resolved by linear probing.</div>
+ */
+public final class KeyRegistry {
+
+  private final ImmutableList<Key<?>> keys;
+  private final int[] displacements;
+  private final int[] slots;
+  // built when they are first looked up
+  private final String[] descriptions;
+
+  /**
+   * Create a registry from tables computed at compile time. This should only be called by
+   * generated code.
+   *
+   * @param keys the keys, in order of their indexes
+   * @param displacements the seed of the second hash of the names in each bucket, whose length is
+   *        a power of two
+   * @param slots a hash table of the indexes of the keys, whose length is a power of two greater
+   *        than the number of keys, in which each name is in the first free slot at or after its
+   *        second hash, and other slots are -1
+   */
+  public KeyRegistry(final ImmutableList<Key<?>> keys, final int[] displacements,
+      final int[] slots) {
+    this.keys = Preconditions.checkNotNull(keys);
+    Preconditions.checkArgument(Integer.bitCount(displacements.length) == 1,
+        "There must be a power of two buckets");
+    Preconditions.checkArgument(Integer.bitCount(slots.length) == 1 && slots.length > keys.size(),
+        "The table must have a power of two slots, more than the %s keys", keys.size());
+    this.displacements = displacements.clone();
+    this.slots = slots.clone();
+    this.descriptions = new String[keys.size()];
+  }
+
+  /**
+   * The hash of a key's name. The low bits of the hash with a seed of zero are its bucket, and the
+   * low bits of the hash seeded with its bucket's displacement are its slot.
+   *
+   * @param name the name of the key
+   * @param seed the seed
+   * @return the hash
+   */
+  public static int hash(final String name, final int seed) {
+    final int h = (name.hashCode() ^ seed) * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  public ImmutableList<Key<?>> getKeys() {
+    return keys;
+  }
+
+  public int size() {
+    return keys.size();
+  }
+
+  /**
+   * Find the index of the key with the given name.
+   *
+   * @param name the name of the key
+   * @return the index of the key in {@link #getKeys()}, or -1 if there is no key with the name
+   */
+  public int indexOf(final String name) {
+    final int displacement = displacements[hash(name, 0) & (displacements.length - 1)];
+    final int mask = slots.length - 1;
+    for (int slot = hash(name, displacement) & mask;; slot = (slot + 1) & mask) {
+      final int index = slots[slot];
+      if (index < 0 || keys.get(index).getKey().equals(name)) {
+        return index;
+      }
+    }
+  }
+
+  /**
+   * Find the key with the given name.
+   *
+   * @param name the name of the key
+   * @return the key, or null if there is no key with the name
+   */
+  public Key<?> get(final String name) {
+    final int index = indexOf(Preconditions.checkNotNull(name));
+    return index < 0 ? null : keys.get(index);
+  }
+
+  /**
+   * The description of the type of the key at the given index, as returned by
+   * {@link Type#description()}.
+   *
+   * @param index the index of the key
+   * @return the description
+   */
+  public String getDescription(final int index) {
+    Preconditions.checkElementIndex(index, keys.size());
+    String description = descriptions[index];
+    if (description == null) {
+      // racing threads build equal descriptions
+      description = keys.get(index).getType().description();
+      descriptions[index] = description;
+    }
+    return description;
+  }
+
+}
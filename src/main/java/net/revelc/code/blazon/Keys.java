@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Utilities for resolving many {@link Key}s from a {@link Source} together. The raw values are
+ * fetched in one batch, with {@link Source#getValues(java.util.Collection)}, so sources which are
+ * backed by a remote service or a file can serve them with one round trip or one scan.
+ */
+public final class Keys {
+
+  private Keys() {}
+
+  /**
+   * Create a key whose default value is given in the same raw form as it would have in a
+   * {@link Source}, and parsed by the key's type.
+   *
+   * @param key the unique identifier of the key
+   * @param type the type of the key
+   * @param rawDefault the raw default value
+   * @return the key
+   * @throws IllegalArgumentException if the type parses the raw default value to null
+   * @throws RuntimeException any exception thrown while parsing and validating the raw default
+   */
+  public static <T> Key<T> withRawDefault(final String key, final Type<T> type,
+      final String rawDefault) {
+    final T defaultValue = Preconditions.checkNotNull(type).parse(rawDefault);
+    Preconditions.checkArgument(defaultValue != null,
+        "The default value '%s' of key %s is equivalent to being unset", rawDefault, key);
+    return new Key<>(key, type, defaultValue);
+  }
+
+  /**
+   * Resolve the given keys from the source.
+   *
+   * @param source the source of raw values
+   * @param keys the keys to resolve
+   * @return a snapshot of the resolved values
+   * @throws RuntimeException any exception thrown while parsing and validating a key's value
+   */
+  public static ConfigSnapshot resolveAll(final Source<?> source, final Key<?>... keys) {
+    return resolveAll(source, Arrays.asList(keys));
+  }
+
+  /**
+   * Resolve the given keys from the source.
+   *
+   * @param source the source of raw values
+   * @param keys the keys to resolve
+   * @return a snapshot of the resolved values
+   * @throws RuntimeException any exception thrown while parsing and validating a key's value
+   */
+  public static ConfigSnapshot resolveAll(final Source<?> source,
+      final Iterable<? extends Key<?>> keys) {
+    return new ConfigSnapshot(source, keys);
+  }
+
+  /**
+   * Resolve the given keys from the source, parsing their values in parallel in the given pool. The
+   * raw values are still fetched in a single batch, on the calling thread. This is only worthwhile
+   * for large sets of keys, or for types which are expensive to parse.
+   *
+   * @param source the source of raw values
+   * @param pool the pool in which to parse the values
+   * @param keys the keys to resolve
+   * @return a snapshot of the resolved values
+   * @throws RuntimeException any exception thrown while parsing and validating a key's value
+   */
+  public static ConfigSnapshot resolveAll(final Source<?> source, final ForkJoinPool pool,
+      final Iterable<? extends Key<?>> keys) {
+    return new ConfigSnapshot(source, keys, Preconditions.checkNotNull(pool));
+  }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A view of the values of a declared set of {@link Key}s in a {@link Source}, which fetches and
+ * parses the value of each key only when it is first read. This suits processes which declare many
+ * more keys than they read, since keys which are never read cost nothing but an empty slot. Like
+ * {@link ConfigSnapshot}, each key's value is stored in a flat array with one slot per key, found
+ * by the identity of the key, so once a key has been read, reading it again is a slot lookup and a
+ * single volatile array load.
+ *
+ * <div>If several threads read an unresolved key at the same time, each may parse it, but only the
+ * first result to be published is kept, and all of them return it. A value which fails to parse is
+ * cached as well, and every later read throws a new exception of the same class, with the same
+ * message, whose cause is the cached one, without parsing again.</div>
+ *
+ * <div>Each value is fetched from the source when its key is first read, so if the source is
+ * mutable, the values of different keys may come from different versions of it. Use an
+ * {@link Source#isImmutable() immutable} source, or a {@link ConfigSnapshot}, where the values must
+ * be consistent with each other.</div>
+ */
+public final class LazySnapshot {
+
+  // the slot of a key whose value is null
+  private static final Object NULL = new Object();
+
+  private final Source<?> source;
+  private final ImmutableList<Key<?>> keys;
+  private final SlotTable slots;
+  // in the same order as the keys; null until the key is read, then NULL, a CachedFailure, or
+  // the value
+  private final AtomicReferenceArray<Object> values;
+
+  /**
+   * Create a view of the given keys in the source, without fetching or parsing any values.
+   *
+   * @param source the source of raw values
+   * @param keys the keys in the view
+   */
+  public LazySnapshot(final Source<?> source, final Key<?>... keys) {
+    this(source, Arrays.asList(keys));
+  }
+
+  /**
+   * Create a view of the given keys in the source, without fetching or parsing any values.
+   *
+   * @param source the source of raw values
+   * @param keys the keys in the view
+   */
+  public LazySnapshot(final Source<?> source, final Iterable<? extends Key<?>> keys) {
+    this.source = Preconditions.checkNotNull(source);
+    final Set<Key<?>> distinct = new LinkedHashSet<>();
+    for (final Key<?> key : keys) {
+      distinct.add(Preconditions.checkNotNull(key));
+    }
+    this.keys = ImmutableList.copyOf(distinct);
+    this.slots = new SlotTable(this.keys);
+    this.values = new AtomicReferenceArray<>(this.keys.size());
+  }
+
+  /**
+   * Get the keys in this view, in the order they were declared.
+   *
+   * @return the keys
+   */
+  public ImmutableList<Key<?>> getKeys() {
+    return keys;
+  }
+
+  /**
+   * Check whether the key is in this view.
+   *
+   * @param key the key
+   * @return true if the key is in this view
+   */
+  public boolean contains(final Key<?> key) {
+    return slots.slotOf(key) >= 0;
+  }
+
+  /**
+   * Get the value of the key, parsing it if this is the first time the key was read.
+   *
+   * @param key the key
+   * @return the value, which is null if the key had no value and no default value
+   * @throws IllegalArgumentException if the key is not in this view
+   * @throws RuntimeException an exception like the one thrown while parsing and validating the
+   *         key's value, which is thrown again, as a new exception, each time the key is read
+   */
+  public <T> T get(final Key<T> key) {
+    final int slot = slots.slotOf(key);
+    if (slot < 0) {
+      throw new IllegalArgumentException("Key " + key.getKey() + " is not in this view");
+    }
+    Object value = values.get(slot);
+    if (value == null) {
+      value = resolve(key, slot);
+    }
+    if (value == NULL) {
+      return null;
+    }
+    if (value instanceof CachedFailure) {
+      throw ((CachedFailure) value).newException();
+    }
+    @SuppressWarnings("unchecked")
+    final T result = (T) value;
+    return result;
+  }
+
+  /**
+   * Get the value of the key, which must not be null, parsing it if this is the first time the key
+   * was read.
+   *
+   * @param key the key
+   * @return the value
+   * @throws IllegalArgumentException if the key is not in this view
+   * @throws IllegalStateException if the key had no value and no default value
+   * @throws RuntimeException an exception like the one thrown while parsing and validating the
+   *         key's value, which is thrown again, as a new exception, each time the key is read
+   */
+  public <T> T getRequired(final Key<T> key) {
+    final T value = get(key);
+    if (value == null) {
+      throw new IllegalStateException("No value or default value for key " + key.getKey());
+    }
+    return value;
+  }
+
+  // returns the published slot, which may have been published by another thread first
+  private Object resolve(final Key<?> key, final int slot) {
+    Object value;
+    try {
+      value = key.resolve(source.getValue(key.getKey()));
+      if (value == null) {
+        value = NULL;
+      }
+    } catch (final RuntimeException e) {
+      value = new CachedFailure(e);
+    }
+    if (values.compareAndSet(slot, null, value)) {
+      return value;
+    }
+    return values.get(slot);
+  }
+
+  /**
+   * Check whether the key has been read from this view, whether or not its value was valid.
+   *
+   * @param key the key
+   * @return true if the key is in this view, and has been read
+   */
+  public boolean isRead(final Key<?> key) {
+    final int slot = slots.slotOf(key);
+    return slot >= 0 && values.get(slot) != null;
+  }
+
+  /**
+   * Get the keys which have not been read from this view yet, which, after a process has run for
+   * long enough to have read all of the configuration it uses, are candidates for removal.
+   *
+   * @return the unread keys, in the order they were declared
+   */
+  public ImmutableList<Key<?>> getUnreadKeys() {
+    final ImmutableList.Builder<Key<?>> unread = ImmutableList.builder();
+    for (int slot = 0; slot < keys.size(); slot++) {
+      if (values.get(slot) == null) {
+        unread.add(keys.get(slot));
+      }
+    }
+    return unread.build();
+  }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import java.util.List;
+
+/**
+ * An immutable open-addressing table from {@link Key}s to dense slot numbers, which are the
+ * positions of the keys in the list the table was built from. Keys are hashed by their
+ * {@link Key#index() index} and compared by identity, so a lookup is a multiply and, in the common
+ * case, one probe, and the size of the table depends only on the number of keys in it.
+ */
+final class SlotTable {
+
+  private final Key<?>[] keys;
+  private final int[] slots;
+
+  /**
+   * Build a table of the given distinct keys.
+   */
+  SlotTable(final List<Key<?>> keys) {
+    // keep the table at most half full
+    final int capacity = Integer.highestOneBit(Math.max(1, keys.size()) * 2 - 1) << 1;
+    this.keys = new Key<?>[capacity];
+    this.slots = new int[capacity];
+    final int mask = capacity - 1;
+    for (int slot = 0; slot < keys.size(); slot++) {
+      final Key<?> key = keys.get(slot);
+      int i = spread(key.index()) & mask;
+      while (this.keys[i] != null) {
+        i = (i + 1) & mask;
+      }
+      this.keys[i] = key;
+      this.slots[i] = slot;
+    }
+  }
+
+  // indexes are sequential, so scatter them with a multiplicative hash
+  private static int spread(final int index) {
+    final int hash = index * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Find the slot of the key.
+   *
+   * @return the slot, or -1 if the key is not in the table
+   */
+  int slotOf(final Key<?> key) {
+    final int mask = keys.length - 1;
+    for (int i = spread(key.index()) & mask; keys[i] != null; i = (i + 1) & mask) {
+      if (keys[i] == key) {
+        return slots[i];
+      }
+    }
+    return -1;
+  }
+
+}
@@ -0,0 +1,376 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import net.revelc.code.blazon.types.numeric.BoxCache;
+import net.revelc.code.blazon.types.units.Quantity;
+
+/**
+ * Stores the validated values of a {@link ConfigSnapshot} in a compact binary file, so that a later
+ * start can load them without parsing any raw values. Integers, longs and booleans are stored
+ * natively, each distinct string is stored once, enum constants are stored by ordinal, and
+ * {@link Quantity quantities} with <code>long</code> magnitudes are stored as the magnitude and the
+ * ordinal of the unit.
+ *
+ * <div>The file begins with a checksum of the schema, which is the name, class, type and default
+ * value of each key, and of the raw values of the keys in the source. The raw values are still
+ * fetched on every start, but if the checksum matches, the file is memory-mapped and its values
+ * are decoded directly. Otherwise, such as when a key was added, its type or default value
+ * changed, or its raw value was edited, the keys are parsed from the raw values as usual, and the
+ * file is rewritten. A type is identified by its class and its {@link Type#description()}, so a
+ * type whose behavior can change without changing either should not be stored in a file which
+ * outlives a release.</div>
+ */
+public final class SnapshotFile {
+
+  // "BLZS"
+  private static final int MAGIC = 0x424C5A53;
+  private static final int VERSION = 1;
+  // the magic number, the version, the checksum, the CRC-32 of the payload, and its length
+  private static final int HEADER_LENGTH = 4 + 4 + 16 + 4 + 4;
+
+  private static final byte NULL = 0;
+  private static final byte FALSE = 1;
+  private static final byte TRUE = 2;
+  private static final byte INT = 3;
+  private static final byte LONG = 4;
+  private static final byte STRING = 5;
+  private static final byte ENUM = 6;
+  private static final byte QUANTITY = 7;
+
+  private SnapshotFile() {}
+
+  /**
+   * Load the values of the keys from the file, if it was written for the same keys and the same
+   * raw values in the source, or else resolve them from the source and rewrite the file. Any
+   * failure to read or write the file is ignored, since the snapshot can always be resolved from
+   * the source instead.
+   *
+   * @param file the file
+   * @param source the source of raw values
+   * @param keys the keys to resolve
+   * @return the snapshot
+   * @throws RuntimeException any exception thrown while parsing and validating a key's value, if
+   *         the file could not be used
+   */
+  public static ConfigSnapshot load(final Path file, final Source<?> source,
+      final Key<?>... keys) {
+    return load(file, source, Arrays.asList(keys));
+  }
+
+  /**
+   * Load the values of the keys from the file, if it was written for the same keys and the same
+   * raw values in the source, or else resolve them from the source and rewrite the file. Any
+   * failure to read or write the file is ignored, since the snapshot can always be resolved from
+   * the source instead.
+   *
+   * @param file the file
+   * @param source the source of raw values
+   * @param keys the keys to resolve
+   * @return the snapshot
+   * @throws RuntimeException any exception thrown while parsing and validating a key's value, if
+   *         the file could not be used
+   */
+  public static ConfigSnapshot load(final Path file, final Source<?> source,
+      final Iterable<? extends Key<?>> keys) {
+    Preconditions.checkNotNull(file);
+    Preconditions.checkNotNull(source);
+    final ImmutableList<Key<?>> distinct = distinct(keys);
+    final Map<String, String> raw = source.getValues(ConfigSnapshot.names(distinct));
+    final byte[] checksum = checksum(distinct, raw);
+    final Object[] values = read(file, checksum, distinct);
+    if (values != null) {
+      return new ConfigSnapshot(distinct, values);
+    }
+    final ConfigSnapshot snapshot = new ConfigSnapshot(distinct, raw);
+    try {
+      write(file, checksum, snapshot);
+    } catch (final IOException | IllegalArgumentException e) {
+      // the file is only an optimization
+    }
+    return snapshot;
+  }
+
+  /**
+   * Write the values of the snapshot to the file, replacing it atomically. The raw values are
+   * fetched again from the source, so it must be the source the snapshot was resolved from, and it
+   * must not have changed since.
+   *
+   * @param file the file
+   * @param source the source the snapshot was resolved from
+   * @param snapshot the snapshot
+   * @throws IOException if the file can't be written
+   * @throws IllegalArgumentException if a value can't be stored, because it is not a string, a
+   *         boxed primitive, an enum constant, or a quantity with a <code>long</code> magnitude
+   */
+  public static void write(final Path file, final Source<?> source, final ConfigSnapshot snapshot)
+      throws IOException {
+    final ImmutableList<Key<?>> keys = snapshot.getKeys();
+    write(file, checksum(keys, source.getValues(ConfigSnapshot.names(keys))), snapshot);
+  }
+
+  private static void write(final Path file, final byte[] checksum, final ConfigSnapshot snapshot)
+      throws IOException {
+    final byte[] payload = encode(snapshot);
+    final CRC32 crc = new CRC32();
+    crc.update(payload);
+    final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+    header.putInt(MAGIC).putInt(VERSION).put(checksum).putInt((int) crc.getValue())
+        .putInt(payload.length);
+    final Path absolute = file.toAbsolutePath();
+    final Path temp =
+        Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temp)) {
+        out.write(header.array());
+        out.write(payload);
+      }
+      Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private static ImmutableList<Key<?>> distinct(final Iterable<? extends Key<?>> keys) {
+    final LinkedHashSet<Key<?>> distinct = new LinkedHashSet<>();
+    for (final Key<?> key : keys) {
+      distinct.add(Preconditions.checkNotNull(key));
+    }
+    return ImmutableList.copyOf(distinct);
+  }
+
+  private static byte[] checksum(final List<Key<?>> keys, final Map<String, String> raw) {
+    final Hasher hasher = Hashing.murmur3_128().newHasher();
+    hasher.putInt(VERSION).putInt(keys.size());
+    for (final Key<?> key : keys) {
+      putString(hasher, key.getKey());
+      putString(hasher, key.getClass().getName());
+      putString(hasher, key.getType().getClass().getName());
+      putString(hasher, key.getType().description());
+      putString(hasher, String.valueOf(key.getDefaultValue()));
+      final String value = raw.get(key.getKey());
+      hasher.putBoolean(value != null);
+      if (value != null) {
+        putString(hasher, value);
+      }
+    }
+    return hasher.hash().asBytes();
+  }
+
+  // prefixed by its length, so adjacent strings can't be confused
+  private static void putString(final Hasher hasher, final String s) {
+    hasher.putInt(s.length()).putUnencodedChars(s);
+  }
+
+  private static byte[] encode(final ConfigSnapshot snapshot) throws IOException {
+    final Map<String, Integer> strings = new HashMap<>();
+    final ByteArrayOutputStream table = new ByteArrayOutputStream();
+    final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+    try (DataOutputStream tableOut = new DataOutputStream(table);
+        DataOutputStream out = new DataOutputStream(entries)) {
+      out.writeInt(snapshot.getKeys().size());
+      for (final Key<?> key : snapshot.getKeys()) {
+        final Object value = snapshot.get(key);
+        if (value == null) {
+          out.writeByte(NULL);
+        } else if (value instanceof Boolean) {
+          out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Integer) {
+          out.writeByte(INT);
+          out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+          out.writeByte(LONG);
+          out.writeLong((Long) value);
+        } else if (value instanceof String) {
+          out.writeByte(STRING);
+          out.writeInt(stringIndex((String) value, strings, tableOut));
+        } else if (value instanceof Enum) {
+          out.writeByte(ENUM);
+          writeEnum((Enum<?>) value, out, strings, tableOut);
+        } else if (value.getClass() == Quantity.class
+            && ((Quantity<?, ?>) value).getMagnitude() instanceof Long) {
+          final Quantity<?, ?> quantity = (Quantity<?, ?>) value;
+          out.writeByte(QUANTITY);
+          out.writeLong((Long) quantity.getMagnitude());
+          writeEnum(quantity.getUnit(), out, strings, tableOut);
+        } else {
+          throw new IllegalArgumentException(
+              "Can't store value of key " + key.getKey() + " of " + value.getClass());
+        }
+      }
+    }
+    final ByteBuffer payload = ByteBuffer.allocate(4 + table.size() + entries.size());
+    payload.putInt(strings.size()).put(table.toByteArray()).put(entries.toByteArray());
+    return payload.array();
+  }
+
+  // the name is stored along with the ordinal, to detect constants which were reordered
+  private static void writeEnum(final Enum<?> constant, final DataOutputStream out,
+      final Map<String, Integer> strings, final DataOutputStream tableOut) throws IOException {
+    out.writeInt(stringIndex(constant.getDeclaringClass().getName(), strings, tableOut));
+    out.writeInt(constant.ordinal());
+    out.writeInt(stringIndex(constant.name(), strings, tableOut));
+  }
+
+  private static int stringIndex(final String s, final Map<String, Integer> strings,
+      final DataOutputStream tableOut) throws IOException {
+    Integer index = strings.get(s);
+    if (index == null) {
+      index = strings.size();
+      strings.put(s, index);
+      final byte[] bytes = s.getBytes(UTF_8);
+      tableOut.writeInt(bytes.length);
+      tableOut.write(bytes);
+    }
+    return index;
+  }
+
+  // returns null if the file is missing, stale, or corrupt
+  private static Object[] read(final Path file, final byte[] checksum, final List<Key<?>> keys) {
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size < HEADER_LENGTH || size > Integer.MAX_VALUE) {
+        return null;
+      }
+      final ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, size);
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        return null;
+      }
+      final byte[] stored = new byte[checksum.length];
+      buffer.get(stored);
+      if (!MessageDigest.isEqual(stored, checksum)) {
+        return null;
+      }
+      final int crc = buffer.getInt();
+      if (buffer.getInt() != buffer.remaining()) {
+        return null;
+      }
+      final ByteBuffer payload = buffer.slice();
+      final CRC32 actual = new CRC32();
+      actual.update(payload.duplicate());
+      if ((int) actual.getValue() != crc) {
+        return null;
+      }
+      return decode(payload, keys);
+    } catch (final IOException | ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static Object[] decode(final ByteBuffer in, final List<Key<?>> keys)
+      throws ClassNotFoundException {
+    final String[] strings = new String[in.getInt()];
+    for (int i = 0; i < strings.length; i++) {
+      final byte[] bytes = new byte[in.getInt()];
+      in.get(bytes);
+      strings[i] = new String(bytes, UTF_8);
+    }
+    if (in.getInt() != keys.size()) {
+      return null;
+    }
+    final Object[] values = new Object[keys.size()];
+    for (int i = 0; i < values.length; i++) {
+      final byte tag = in.get();
+      switch (tag) {
+        case NULL:
+          break;
+        case FALSE:
+          values[i] = Boolean.FALSE;
+          break;
+        case TRUE:
+          values[i] = Boolean.TRUE;
+          break;
+        case INT:
+          values[i] = BoxCache.valueOf(in.getInt());
+          break;
+        case LONG:
+          values[i] = BoxCache.valueOf(in.getLong());
+          break;
+        case STRING:
+          values[i] = strings[in.getInt()];
+          break;
+        case ENUM:
+          values[i] = readEnum(in, strings, keys.get(i));
+          break;
+        case QUANTITY:
+          values[i] = quantity(BoxCache.valueOf(in.getLong()), readEnum(in, strings, keys.get(i)));
+          break;
+        default:
+          return null;
+      }
+    }
+    return in.hasRemaining() ? null : values;
+  }
+
+  private static Enum<?> readEnum(final ByteBuffer in, final String[] strings, final Key<?> key)
+      throws ClassNotFoundException {
+    final String className = strings[in.getInt()];
+    final int ordinal = in.getInt();
+    final String name = strings[in.getInt()];
+    final Object[] constants = loadClass(className, key).getEnumConstants();
+    Preconditions.checkState(constants != null && ordinal >= 0 && ordinal < constants.length
+        && ((Enum<?>) constants[ordinal]).name().equals(name), "%s.%s was reordered", className,
+        name);
+    return (Enum<?>) constants[ordinal];
+  }
+
+  // the enum is most likely visible to the loader of the key's type
+  private static Class<?> loadClass(final String name, final Key<?> key)
+      throws ClassNotFoundException {
+    try {
+      return Class.forName(name, false, key.getType().getClass().getClassLoader());
+    } catch (final ClassNotFoundException e) {
+      final ClassLoader context = Thread.currentThread().getContextClassLoader();
+      if (context == null) {
+        throw e;
+      }
+      return Class.forName(name, false, context);
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Quantity<?, ?> quantity(final Long magnitude, final Enum<?> unit) {
+    return new Quantity(magnitude, (Enum) unit);
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable index of the entries of a {@link Source}, as parallel arrays of keys and values
+ * sorted by key, so the keys with a given prefix are adjacent, and can be found with a binary
+ * search.
+ */
+final class SortedIndex {
+
+  private final long generation;
+  private final String[] keys;
+  private final String[] values;
+
+  private SortedIndex(final long generation, final Map<String, String> sorted) {
+    this.generation = generation;
+    this.keys = sorted.keySet().toArray(new String[sorted.size()]);
+    this.values = sorted.values().toArray(new String[sorted.size()]);
+  }
+
+  /**
+   * Index the entries of the source.
+   */
+  static SortedIndex of(final Source<?> source, final long generation) {
+    final TreeMap<String, String> sorted = new TreeMap<>();
+    source.forEachEntry(sorted::put);
+    return new SortedIndex(generation, sorted);
+  }
+
+  long getGeneration() {
+    return generation;
+  }
+
+  // the first position whose key is not less than the prefix
+  private int start(final String prefix) {
+    int low = 0;
+    int high = keys.length;
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (keys[middle].compareTo(prefix) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  // the first position after start whose key doesn't start with the prefix
+  private int end(final String prefix, final int start) {
+    int low = start;
+    int high = keys.length;
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (keys[middle].startsWith(prefix)) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * List the keys with the prefix, in sorted order, with the prefix removed.
+   */
+  ImmutableList<String> keys(final String prefix) {
+    final int start = start(prefix);
+    final int end = end(prefix, start);
+    final ImmutableList.Builder<String> found = ImmutableList.builder();
+    for (int i = start; i < end; i++) {
+      found.add(keys[i].substring(prefix.length()));
+    }
+    return found.build();
+  }
+
+  /**
+   * Pass each entry whose key has the prefix to the action, in sorted order, with the prefix
+   * removed.
+   */
+  void forEachEntry(final String prefix, final BiConsumer<String, String> action) {
+    final int start = start(prefix);
+    final int end = end(prefix, start);
+    for (int i = start; i < end; i++) {
+      action.accept(keys[i].substring(prefix.length()), values[i]);
+    }
+  }
+
+}
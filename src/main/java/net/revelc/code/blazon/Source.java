@@ -15,13 +15,29 @@
 package net.revelc.code.blazon;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Ordering;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * A simple interface to provide {@link String} values from {@link String} keys.
  */
 public abstract class Source<T> {
 
+  /**
+   * The generation of a source which does not track changes to its values.
+   */
+  public static final long UNVERSIONED = -1L;
+
   private final T source;
+  // the index of the entries of an enumerable source, as of its generation
+  private volatile SortedIndex index;
 
   public Source(final T source) {
     this.source = Preconditions.checkNotNull(source);
@@ -44,4 +60,153 @@ public abstract class Source<T> {
    */
   public abstract String getValue(final String key);
 
+  /**
+   * Indicates whether the values of this source can never change. Immutable sources may be
+   * indexed or cached by the code which uses them, such as by {@code CompositeSource}. This returns
+   * false by default.
+   *
+   * @return true if this source will always return the same value for each key
+   */
+  public boolean isImmutable() {
+    return false;
+  }
+
+  /**
+   * A counter which increases every time the values of this source change, so code which caches
+   * values parsed from this source, such as {@link Key#getValue(Source)}, can tell whether they
+   * are still current. A source which changes must increase its generation after its new values
+   * are visible to other threads, so a reader which sees the new generation also sees the new
+   * values. Sources which can't tell when their values change, such as those backed by mutable
+   * collections, return {@link #UNVERSIONED}, so their values are never cached. By default, this
+   * returns zero for an {@link #isImmutable() immutable} source, and {@link #UNVERSIONED}
+   * otherwise.
+   *
+   * @return the current generation, which is never negative, or {@link #UNVERSIONED}
+   */
+  public long getGeneration() {
+    return isImmutable() ? 0L : UNVERSIONED;
+  }
+
+  /**
+   * Retrieve the values of many keys at once. Sources which can fetch a set of values more cheaply
+   * than one at a time, such as with a single round trip, a single scan, or a single lock, should
+   * override this method. The default implementation calls {@link #getValue(String)} for each key.
+   *
+   * @param keys the keys by which the values can be found, if they exist
+   * @return the values which exist, by key, in the order the keys were given; keys which do not
+   *         exist are omitted
+   */
+  public Map<String, String> getValues(final Collection<String> keys) {
+    final Map<String, String> values = new LinkedHashMap<>();
+    for (final String key : keys) {
+      final String value = getValue(Preconditions.checkNotNull(key));
+      if (value != null) {
+        values.put(key, value);
+      }
+    }
+    return ImmutableMap.copyOf(values);
+  }
+
+  /**
+   * Indicates whether the entries of this source can be listed, with
+   * {@link #forEachEntry(BiConsumer)}, {@link #keys()}, and the {@link #subset(String)} views of
+   * this source. This returns false by default.
+   *
+   * @return true if this source can list its entries
+   */
+  public boolean isEnumerable() {
+    return false;
+  }
+
+  /**
+   * Pass each key of this source which has a value, and its value, to the action, in no
+   * particular order. Sources which can list their entries should override this method and
+   * {@link #isEnumerable()}. The default implementation throws an exception.
+   *
+   * @param action the action to pass each key and value to
+   * @throws UnsupportedOperationException if this source is not {@link #isEnumerable() enumerable}
+   */
+  public void forEachEntry(final BiConsumer<String, String> action) {
+    throw new UnsupportedOperationException(getClass().getName() + " can't list its entries");
+  }
+
+  /**
+   * List the keys of this source which have values, in sorted order. If the source tracks its
+   * {@link #getGeneration() generation}, the keys are read from a sorted index of the entries,
+   * which is built the first time it is needed, and kept until the generation changes. The keys of
+   * an {@link #UNVERSIONED} source are collected and sorted on every call.
+   *
+   * @return the keys, in sorted order
+   * @throws UnsupportedOperationException if this source is not {@link #isEnumerable() enumerable}
+   */
+  public ImmutableList<String> keys() {
+    return keysWithPrefix("");
+  }
+
+  /**
+   * Get a view of the keys of this source which start with the given prefix, with the prefix
+   * removed. For example, the value of <code>port</code> in the subset of <code>server1.</code> is
+   * the value of <code>server1.port</code> in this source. If this source is enumerable, so is the
+   * view. If this source also tracks its {@link #getGeneration() generation}, such as a frozen or
+   * immutable source, the entries of the view are found in this source's sorted index, with a
+   * binary search for the prefix, so listing them takes time in proportion to the length of the
+   * prefix and the number of entries found, and not to the size of this source. Otherwise, such as
+   * for a {@link net.revelc.code.blazon.sources.PropertiesSource} which isn't frozen, or a
+   * {@link net.revelc.code.blazon.sources.MapSource} of a mutable map, every entry of this source
+   * is checked each time the view is listed, because changes to it can't be detected. To list the
+   * subsets of many prefixes, such as one per backend, take them from a frozen copy, such as one
+   * made by {@link net.revelc.code.blazon.sources.PropertiesSource#frozen(java.util.Properties)}.
+   *
+   * @param prefix the prefix, such as <code>server1.</code>
+   * @return the view, which reflects any changes to this source
+   */
+  public Source<Source<?>> subset(final String prefix) {
+    return new SubsetSource(this, Preconditions.checkNotNull(prefix));
+  }
+
+  // lists the keys with the prefix, in sorted order, with the prefix removed
+  ImmutableList<String> keysWithPrefix(final String prefix) {
+    final SortedIndex current = index();
+    if (current != null) {
+      return current.keys(prefix);
+    }
+    final List<String> found = new ArrayList<>();
+    forEachEntry((key, value) -> {
+      if (key.startsWith(prefix)) {
+        found.add(key.substring(prefix.length()));
+      }
+    });
+    return Ordering.natural().immutableSortedCopy(found);
+  }
+
+  // passes each entry whose key has the prefix to the action, with the prefix removed
+  void forEachEntryWithPrefix(final String prefix, final BiConsumer<String, String> action) {
+    final SortedIndex current = index();
+    if (current != null) {
+      current.forEachEntry(prefix, action);
+      return;
+    }
+    forEachEntry((key, value) -> {
+      if (key.startsWith(prefix)) {
+        action.accept(key.substring(prefix.length()), value);
+      }
+    });
+  }
+
+  // reads the generation first, so an index is never cached with a later generation; an
+  // UNVERSIONED source has no index, because it would have to be rebuilt for every scan
+  private SortedIndex index() {
+    final long generation = getGeneration();
+    if (generation == UNVERSIONED) {
+      return null;
+    }
+    final SortedIndex last = index;
+    if (last != null && last.getGeneration() == generation) {
+      return last;
+    }
+    final SortedIndex current = SortedIndex.of(this, generation);
+    index = current;
+    return current;
+  }
+
 }
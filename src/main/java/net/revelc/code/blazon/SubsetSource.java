@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A view of the keys of another {@link Source} which start with a prefix, with the prefix removed.
+ * See {@link Source#subset(String)}.
+ */
+final class SubsetSource extends Source<Source<?>> {
+
+  private final String prefix;
+
+  SubsetSource(final Source<?> source, final String prefix) {
+    super(source);
+    this.prefix = prefix;
+  }
+
+  @Override
+  public String getValue(final String key) {
+    return getSource().getValue(prefix + Preconditions.checkNotNull(key));
+  }
+
+  /**
+   * Retrieve the values of many keys at once, with a single batch from the underlying source.
+   */
+  @Override
+  public Map<String, String> getValues(final Collection<String> keys) {
+    final List<String> prefixed = new ArrayList<>(keys.size());
+    for (final String key : keys) {
+      prefixed.add(prefix + Preconditions.checkNotNull(key));
+    }
+    final Map<String, String> found = getSource().getValues(prefixed);
+    final ImmutableMap.Builder<String, String> values = ImmutableMap.builder();
+    for (final Map.Entry<String, String> entry : found.entrySet()) {
+      values.put(entry.getKey().substring(prefix.length()), entry.getValue());
+    }
+    return values.build();
+  }
+
+  @Override
+  public boolean isImmutable() {
+    return getSource().isImmutable();
+  }
+
+  @Override
+  public long getGeneration() {
+    return getSource().getGeneration();
+  }
+
+  @Override
+  public boolean isEnumerable() {
+    return getSource().isEnumerable();
+  }
+
+  @Override
+  public void forEachEntry(final BiConsumer<String, String> action) {
+    getSource().forEachEntryWithPrefix(prefix, action);
+  }
+
+  @Override
+  public ImmutableList<String> keys() {
+    return getSource().keysWithPrefix(prefix);
+  }
+
+  @Override
+  public Source<Source<?>> subset(final String childPrefix) {
+    return getSource().subset(prefix + Preconditions.checkNotNull(childPrefix));
+  }
+
+}
@@ -76,7 +76,22 @@ public abstract class Type<T> {
    * @return the value, after validation, conversion, and applying any post-conversion constraints
    */
   public final T parse(final String raw) {
-    final Optional<String> normalized = checkPreconditions(Optional.fromNullable(raw));
+    return parse((CharSequence) raw);
+  }
+
+  /**
+   * Parses the raw value, which may be any {@link CharSequence}, such as a {@link StringBuilder} or
+   * a view of a buffer. By default, this converts the raw value to a {@link String}, and then
+   * applies {@link #checkPreconditions(Optional)}, then {@link #convert(String)}, then
+   * {@link #checkPostconditions(Object)}. Subclasses may override this method to parse the raw
+   * value in place, without copying it, as long as the result is the same.
+   *
+   * @param raw the raw value to be converted
+   * @return the value, after validation, conversion, and applying any post-conversion constraints
+   */
+  public T parse(final CharSequence raw) {
+    final Optional<String> normalized =
+        checkPreconditions(Optional.fromNullable(raw == null ? null : raw.toString()));
     if (!normalized.isPresent()) {
       return null;
     }
@@ -88,6 +103,19 @@ public abstract class Type<T> {
     return verified.orNull();
   }
 
+  /**
+   * Indicates whether this type is pure, which is to say that {@link #parse(String)} has no side
+   * effects, and always produces an equal result, or throws the same kind of exception, for equal
+   * input. Only pure types may have their results cached, such as with {@link CachingType}. This
+   * returns false by default. Subclasses of a pure type which override its conversion methods
+   * should override this method too, if they break that guarantee.
+   *
+   * @return true if the result of parsing depends only on the raw input
+   */
+  public boolean isPure() {
+    return false;
+  }
+
   /**
    * Provides a description of this type, which can be useful for documentation or generated error
    * messages.
@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+
+/**
+ * The result of validating a {@link Source} with a {@link Validator}, which lists every key whose
+ * value could not be parsed and validated, in the order the keys were declared.
+ */
+public final class ValidationReport {
+
+  /**
+   * A key whose value could not be parsed and validated.
+   *
+   * <div>Configuration values may be secrets, so {@link #toString()} never includes the raw value,
+   * nor the message of the cause, which may quote it. Both are available from
+   * {@link #getRawValue()} and {@link #getCause()}.</div>
+   */
+  public static final class Failure {
+    private final Key<?> key;
+    private final String rawValue;
+    private final RuntimeException cause;
+
+    Failure(final Key<?> key, final String rawValue, final RuntimeException cause) {
+      this.key = key;
+      this.rawValue = rawValue;
+      this.cause = cause;
+    }
+
+    /**
+     * Get the key whose value is invalid.
+     *
+     * @return the key
+     */
+    public Key<?> getKey() {
+      return key;
+    }
+
+    /**
+     * Get the raw value of the key in the source.
+     *
+     * @return the raw value, or null if the key had no value
+     */
+    public String getRawValue() {
+      return rawValue;
+    }
+
+    /**
+     * Get the description of the values the key's type accepts.
+     *
+     * @return the {@link Type#description()} of the key's type
+     */
+    public String getDescription() {
+      return key.getType().description();
+    }
+
+    /**
+     * Get the exception thrown while parsing and validating the raw value.
+     *
+     * @return the exception
+     */
+    public RuntimeException getCause() {
+      return cause;
+    }
+
+    @Override
+    public String toString() {
+      return key.getKey() + " = " + (rawValue == null ? "<unset>" : "<hidden>") + ": "
+          + cause.getClass().getName() + " Expected: " + getDescription();
+    }
+  }
+
+  private final int keyCount;
+  private final ImmutableList<Failure> failures;
+
+  ValidationReport(final int keyCount, final List<Failure> failures) {
+    this.keyCount = keyCount;
+    this.failures = ImmutableList.copyOf(failures);
+  }
+
+  /**
+   * Check whether the value of every key is valid.
+   *
+   * @return true if there are no failures
+   */
+  public boolean isValid() {
+    return failures.isEmpty();
+  }
+
+  /**
+   * Get the number of keys which were validated.
+   *
+   * @return the number of keys
+   */
+  public int getKeyCount() {
+    return keyCount;
+  }
+
+  /**
+   * Get the keys whose values are invalid, in the order the keys were declared.
+   *
+   * @return the failures
+   */
+  public ImmutableList<Failure> getFailures() {
+    return failures;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append(failures.size()).append(" of ").append(keyCount).append(" keys are invalid");
+    for (final Failure failure : failures) {
+      sb.append("\n  ").append(failure);
+    }
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Validates the values of a fixed set of {@link Key}s in any number of {@link Source}s, such as
+ * candidate configurations before they are deployed. Instead of stopping at the first value which
+ * can't be parsed, every key is parsed, as described in {@link Key#parseRawValue(String, Object)},
+ * and every failure is collected into a {@link ValidationReport}. Nothing is recorded in the
+ * {@link net.revelc.code.blazon.metrics.Metrics} of the keys.
+ *
+ * <div>The raw values of each source are fetched in one batch, on the calling thread, and parsed in
+ * parallel in a {@link ForkJoinPool}, unless there are too few keys to be worth splitting. A
+ * validator holds no state between calls, so it can validate many sources concurrently.</div>
+ */
+public final class Validator {
+
+  // the number of keys below which parsing isn't split between threads
+  private static final int THRESHOLD = 32;
+
+  private final ForkJoinPool pool;
+  private final ImmutableList<Key<?>> keys;
+  private final ImmutableList<String> names;
+
+  /**
+   * Create a validator for the given keys, which parses in the common pool.
+   *
+   * @param keys the keys to validate
+   */
+  public Validator(final Iterable<? extends Key<?>> keys) {
+    this(ForkJoinPool.commonPool(), keys);
+  }
+
+  /**
+   * Create a validator for the given keys.
+   *
+   * @param pool the pool in which to parse the values
+   * @param keys the keys to validate
+   */
+  public Validator(final ForkJoinPool pool, final Iterable<? extends Key<?>> keys) {
+    this.pool = Preconditions.checkNotNull(pool);
+    final LinkedHashSet<Key<?>> distinct = new LinkedHashSet<>();
+    for (final Key<?> key : keys) {
+      distinct.add(Preconditions.checkNotNull(key));
+    }
+    this.keys = ImmutableList.copyOf(distinct);
+    this.names = ImmutableList.copyOf(ConfigSnapshot.names(this.keys));
+  }
+
+  /**
+   * Get the keys this validator validates, in the order they were declared.
+   *
+   * @return the keys
+   */
+  public ImmutableList<Key<?>> getKeys() {
+    return keys;
+  }
+
+  /**
+   * Parse and validate the value of every key in the source.
+   *
+   * @param source the source of raw values
+   * @return the report of every key whose value is invalid, in the order the keys were declared
+   */
+  public ValidationReport validate(final Source<?> source) {
+    final Map<String, String> raw = Preconditions.checkNotNull(source).getValues(names);
+    final ValidationReport.Failure[] failures = new ValidationReport.Failure[keys.size()];
+    if (keys.size() <= THRESHOLD) {
+      validate(raw, failures, 0, keys.size());
+    } else {
+      pool.invoke(new Task(raw, failures, 0, keys.size()));
+    }
+    final List<ValidationReport.Failure> found = new ArrayList<>();
+    for (final ValidationReport.Failure failure : failures) {
+      if (failure != null) {
+        found.add(failure);
+      }
+    }
+    return new ValidationReport(keys.size(), found);
+  }
+
+  // each task writes only its own range of the array, which is read after the pool joins them
+  private void validate(final Map<String, String> raw, final ValidationReport.Failure[] failures,
+      final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      final Key<?> key = keys.get(i);
+      final String value = raw.get(key.getKey());
+      try {
+        key.parseUnrecorded(value);
+      } catch (final RuntimeException e) {
+        failures[i] = new ValidationReport.Failure(key, value, e);
+      }
+    }
+  }
+
+  /**
+   * Validates a range of keys, splitting the range in half until it is small enough to validate
+   * directly.
+   */
+  private final class Task extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Map<String, String> raw;
+    private final transient ValidationReport.Failure[] failures;
+    private final int start;
+    private final int end;
+
+    private Task(final Map<String, String> raw, final ValidationReport.Failure[] failures,
+        final int start, final int end) {
+      this.raw = raw;
+      this.failures = failures;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= THRESHOLD) {
+        validate(raw, failures, start, end);
+      } else {
+        final int middle = (start + end) >>> 1;
+        invokeAll(new Task(raw, failures, start, middle), new Task(raw, failures, middle, end));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.metrics;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations in nanoseconds, with one bucket for each power of two. Recording a
+ * duration increments one striped counter, so it is cheap, and it scales across threads which
+ * record concurrently. The resolution is coarse, but enough to tell a parse which takes tens of
+ * nanoseconds from one which takes microseconds.
+ *
+ * <div>Bucket 0 counts durations of zero (or less, if the clock went backwards), and bucket
+ * <code>i</code> counts durations from <code>2<sup>i-1</sup></code> up to
+ * <code>2<sup>i</sup> - 1</code> nanoseconds.</div>
+ */
+public final class LatencyHistogram {
+
+  public static final int BUCKETS = Long.SIZE;
+
+  private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+  /**
+   * Create an empty histogram.
+   */
+  public LatencyHistogram() {
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * The bucket which counts the given duration.
+   *
+   * @param nanos the duration
+   * @return the index of the bucket
+   */
+  public static int bucketOf(final long nanos) {
+    return nanos <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(nanos);
+  }
+
+  /**
+   * The longest duration counted by the given bucket.
+   *
+   * @param bucket the index of the bucket
+   * @return the upper bound of the bucket, in nanoseconds
+   */
+  public static long upperBoundOf(final int bucket) {
+    Preconditions.checkElementIndex(bucket, BUCKETS);
+    return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+  }
+
+  /**
+   * Count one duration.
+   *
+   * @param nanos the duration, in nanoseconds
+   */
+  public void record(final long nanos) {
+    buckets[bucketOf(nanos)].increment();
+  }
+
+  /**
+   * Read the counts of all buckets. Counts recorded concurrently may or may not be included.
+   *
+   * @return the count of each bucket
+   */
+  public long[] getCounts() {
+    final long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets[i].sum();
+    }
+    return counts;
+  }
+
+  /**
+   * Set all counts to zero.
+   */
+  public void reset() {
+    for (final LongAdder bucket : buckets) {
+      bucket.reset();
+    }
+  }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.metrics;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Optional instrumentation of {@link net.revelc.code.blazon.Key} reads. It is disabled by default,
+ * in which case each read costs one extra volatile read of the {@link #isEnabled()} flag. When it
+ * is enabled, every read of a key records its parse latency, and whether it failed or fell back to
+ * a default value, in the {@link ParseMetrics} for the name of the key, and in those for the class
+ * of its {@link net.revelc.code.blazon.Type}. Keys with the same name share their metrics.
+ *
+ * <div>Values which {@link net.revelc.code.blazon.Key#getValue(net.revelc.code.blazon.Source)}
+ * returns from its cache are recorded as reads which took only as long as the cache lookup, but
+ * never as fallbacks or failures, because they are not parsed again. Only the default handling in
+ * {@link net.revelc.code.blazon.Key#parseRawValue(String, Object)} records fallbacks; keys which
+ * override it do not.</div>
+ */
+public final class Metrics {
+
+  private static volatile boolean enabled = false;
+
+  private static final ConcurrentMap<String, ParseMetrics> KEYS = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<Class<?>, ParseMetrics> TYPES = new ConcurrentHashMap<>();
+
+  private Metrics() {}
+
+  /**
+   * Whether reads should be recorded.
+   *
+   * @return true if metrics are enabled
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Start recording reads.
+   */
+  public static void enable() {
+    enabled = true;
+  }
+
+  /**
+   * Stop recording reads. The metrics recorded so far are kept.
+   */
+  public static void disable() {
+    enabled = false;
+  }
+
+  /**
+   * The metrics for keys with the given name, which are created if they don't exist.
+   *
+   * @param key the name of the key
+   * @return the metrics
+   */
+  public static ParseMetrics forKey(final String key) {
+    Preconditions.checkNotNull(key);
+    final ParseMetrics metrics = KEYS.get(key);
+    return metrics != null ? metrics : KEYS.computeIfAbsent(key, ParseMetrics::new);
+  }
+
+  /**
+   * The metrics for types of the given class, which are created if they don't exist.
+   *
+   * @param type the class of the type
+   * @return the metrics
+   */
+  public static ParseMetrics forType(final Class<?> type) {
+    Preconditions.checkNotNull(type);
+    final ParseMetrics metrics = TYPES.get(type);
+    return metrics != null ? metrics
+        : TYPES.computeIfAbsent(type, t -> new ParseMetrics(t.getName()));
+  }
+
+  /**
+   * Copy the metrics of every key name which has been read while metrics were enabled.
+   *
+   * @return the snapshots, by key name, in order of name
+   */
+  public static ImmutableMap<String, ParseMetrics.Snapshot> snapshotKeys() {
+    return snapshot(KEYS.values());
+  }
+
+  /**
+   * Copy the metrics of every type class which has been read while metrics were enabled.
+   *
+   * @return the snapshots, by class name, in order of name
+   */
+  public static ImmutableMap<String, ParseMetrics.Snapshot> snapshotTypes() {
+    return snapshot(TYPES.values());
+  }
+
+  private static ImmutableMap<String, ParseMetrics.Snapshot> snapshot(
+      final Iterable<ParseMetrics> all) {
+    final Map<String, ParseMetrics.Snapshot> sorted = new TreeMap<>();
+    for (final ParseMetrics metrics : all) {
+      final ParseMetrics.Snapshot snapshot = metrics.snapshot();
+      if (snapshot.getReads() > 0 || snapshot.getFallbacks() > 0) {
+        sorted.put(snapshot.getName(), snapshot);
+      }
+    }
+    return ImmutableMap.copyOf(sorted);
+  }
+
+  /**
+   * Set all counters to zero, without changing whether metrics are enabled.
+   */
+  public static void reset() {
+    for (final ParseMetrics metrics : KEYS.values()) {
+      metrics.reset();
+    }
+    for (final ParseMetrics metrics : TYPES.values()) {
+      metrics.reset();
+    }
+  }
+
+}
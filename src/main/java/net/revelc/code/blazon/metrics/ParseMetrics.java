@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.metrics;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters for one {@link net.revelc.code.blazon.Key} name or one
+ * {@link net.revelc.code.blazon.Type} class: how many times values were read, how long each read
+ * took to parse, how many reads fell back to a default value, and how many failed validation. All
+ * counters are striped, so threads which record concurrently do not contend on one memory location.
+ */
+public final class ParseMetrics {
+
+  /**
+   * An immutable copy of the counters, taken by {@link ParseMetrics#snapshot()}.
+   */
+  public static final class Snapshot {
+    private final String name;
+    private final long reads;
+    private final long fallbacks;
+    private final long failures;
+    private final long totalNanos;
+    private final long[] histogram;
+
+    private Snapshot(final String name, final long reads, final long fallbacks,
+        final long failures, final long totalNanos, final long[] histogram) {
+      this.name = name;
+      this.reads = reads;
+      this.fallbacks = fallbacks;
+      this.failures = failures;
+      this.totalNanos = totalNanos;
+      this.histogram = histogram;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getReads() {
+      return reads;
+    }
+
+    public long getFallbacks() {
+      return fallbacks;
+    }
+
+    public long getFailures() {
+      return failures;
+    }
+
+    public long getTotalNanos() {
+      return totalNanos;
+    }
+
+    /**
+     * The counts of the latency histogram, as described by {@link LatencyHistogram}.
+     *
+     * @return a copy of the count of each bucket
+     */
+    public long[] getHistogram() {
+      return histogram.clone();
+    }
+
+    /**
+     * The mean time to parse a value.
+     *
+     * @return the mean, in nanoseconds, or zero if nothing was read
+     */
+    public double getMeanNanos() {
+      return reads == 0 ? 0 : (double) totalNanos / reads;
+    }
+
+    /**
+     * An upper bound on the given percentile of the time to parse a value, accurate to within a
+     * factor of two.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the upper bound of the histogram bucket which contains the percentile, in
+     *         nanoseconds, or zero if nothing was read
+     */
+    public long getPercentileNanos(final double percentile) {
+      Preconditions.checkArgument(percentile >= 0 && percentile <= 100,
+          "percentile %s is not in the range [0\u2025100]", percentile);
+      long total = 0;
+      for (final long count : histogram) {
+        total += count;
+      }
+      if (total == 0) {
+        return 0;
+      }
+      final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+      long seen = 0;
+      for (int i = 0; i < histogram.length; i++) {
+        seen += histogram[i];
+        if (seen >= rank) {
+          return LatencyHistogram.upperBoundOf(i);
+        }
+      }
+      return Long.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+      return name + " reads=" + reads + " fallbacks=" + fallbacks + " failures=" + failures
+          + " meanNanos=" + Math.round(getMeanNanos()) + " p50Nanos=" + getPercentileNanos(50)
+          + " p99Nanos=" + getPercentileNanos(99) + " histogram=" + Arrays.toString(histogram);
+    }
+  }
+
+  private final String name;
+  private final LongAdder reads = new LongAdder();
+  private final LongAdder fallbacks = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  ParseMetrics(final String name) {
+    this.name = Preconditions.checkNotNull(name);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Count one read of a value.
+   *
+   * @param nanos the time taken to parse and validate the value
+   * @param failed true if the value failed to parse or validate
+   */
+  public void recordRead(final long nanos, final boolean failed) {
+    reads.increment();
+    totalNanos.add(nanos);
+    histogram.record(nanos);
+    if (failed) {
+      failures.increment();
+    }
+  }
+
+  /**
+   * Count one read which returned the default value, because the value was absent or equivalent to
+   * being unset.
+   */
+  public void recordFallback() {
+    fallbacks.increment();
+  }
+
+  /**
+   * Copy the current counters. Counts recorded concurrently may or may not be included.
+   *
+   * @return the copy
+   */
+  public Snapshot snapshot() {
+    return new Snapshot(name, reads.sum(), fallbacks.sum(), failures.sum(), totalNanos.sum(),
+        histogram.getCounts());
+  }
+
+  void reset() {
+    reads.reset();
+    fallbacks.reset();
+    failures.reset();
+    totalNanos.reset();
+    histogram.reset();
+  }
+
+}
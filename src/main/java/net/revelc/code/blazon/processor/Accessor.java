@@ -0,0 +1,66 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.processor;
+
+/**
+ * A method of a configuration interface, and the key whose value it returns, as read from its
+ * {@link net.revelc.code.blazon.ConfigKey} annotation.
+ */
+final class Accessor {
+
+  final String methodName;
+  final String constantName;
+  final String keyName;
+  // the declared return type of the method
+  final String returnType;
+  // the type argument of the key's Type
+  final String valueType;
+  final boolean primitive;
+  // the Java expression which evaluates to the key's Type
+  final String typeExpression;
+  // the raw default value, or null
+  final String rawDefault;
+
+  Accessor(final String methodName, final String keyName, final String returnType,
+      final String valueType, final boolean primitive, final String typeExpression,
+      final String rawDefault) {
+    this.methodName = methodName;
+    this.constantName = constantName(methodName);
+    this.keyName = keyName;
+    this.returnType = returnType;
+    this.valueType = valueType;
+    this.primitive = primitive;
+    this.typeExpression = typeExpression;
+    this.rawDefault = rawDefault;
+  }
+
+  /**
+   * Convert a method name in lower camel case to a constant name in upper snake case, such as
+   * <code>maxThreads</code> to <code>MAX_THREADS</code>.
+   */
+  static String constantName(final String methodName) {
+    final StringBuilder name = new StringBuilder(methodName.length() + 4);
+    for (int i = 0; i < methodName.length(); i++) {
+      final char c = methodName.charAt(i);
+      if (Character.isUpperCase(c) && i > 0
+          && !Character.isUpperCase(methodName.charAt(i - 1))) {
+        name.append('_');
+      }
+      name.append(Character.toUpperCase(c));
+    }
+    return name.toString();
+  }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import javax.lang.model.util.Elements;
+
+/**
+ * Writes the source of the class generated for a configuration interface. All names are fully
+ * qualified, so the generated source doesn't need imports, which could clash with the names of
+ * nested types.
+ */
+final class ConfigClassWriter {
+
+  private static final String KEY = "net.revelc.code.blazon.Key";
+  private static final String KEYS = "net.revelc.code.blazon.Keys";
+  private static final String SNAPSHOT = "net.revelc.code.blazon.ConfigSnapshot";
+  private static final String SOURCE = "net.revelc.code.blazon.Source";
+  private static final String LIST = "com.google.common.collect.ImmutableList";
+  private static final String REGISTRY = "net.revelc.code.blazon.KeyRegistry";
+
+  private final Elements elements;
+  private final String packageName;
+  private final String className;
+  private final String interfaceName;
+  private final List<Accessor> accessors;
+
+  ConfigClassWriter(final Elements elements, final String packageName, final String className,
+      final String interfaceName, final List<Accessor> accessors) {
+    this.elements = elements;
+    this.packageName = packageName;
+    this.className = className;
+    this.interfaceName = interfaceName;
+    this.accessors = accessors;
+  }
+
+  void write(final Writer out) throws IOException {
+    final StringBuilder s = new StringBuilder();
+    s.append("// Generated by ").append(ConfigKeyProcessor.class.getName()).append(" from ")
+        .append(interfaceName).append("; do not edit\n");
+    if (!packageName.isEmpty()) {
+      s.append("package ").append(packageName).append(";\n");
+    }
+    s.append('\n');
+    s.append("/**\n * The implementation of {@link ").append(interfaceName)
+        .append("}, whose values are resolved when it is loaded.\n */\n");
+    s.append("public final class ").append(className).append(" implements ")
+        .append(interfaceName).append(" {\n\n");
+
+    for (final Accessor a : accessors) {
+      s.append("  public static final ").append(KEY).append('<').append(a.valueType).append("> ")
+          .append(a.constantName).append(" =\n      ");
+      if (a.rawDefault == null) {
+        s.append("new ").append(KEY).append('<').append(a.valueType).append(">(")
+            .append(literal(a.keyName)).append(", ").append(a.typeExpression).append(");\n");
+      } else {
+        s.append(KEYS).append(".withRawDefault(").append(literal(a.keyName)).append(", ")
+            .append(a.typeExpression).append(", ").append(literal(a.rawDefault)).append(");\n");
+      }
+    }
+    s.append("\n  /**\n   * All of the keys, in the order their methods were declared.\n   */\n");
+    s.append("  public static final ").append(LIST).append('<').append(KEY).append("<?>> KEYS =\n")
+        .append("      ").append(LIST).append(".<").append(KEY).append("<?>>copyOf(new ")
+        .append(KEY).append("<?>[] {");
+    for (int i = 0; i < accessors.size(); i++) {
+      s.append(i == 0 ? "" : ", ").append(accessors.get(i).constantName);
+    }
+    s.append("});\n\n");
+
+    final List<String> names = new ArrayList<>(accessors.size());
+    for (final Accessor a : accessors) {
+      names.add(a.keyName);
+    }
+    final PerfectHash table = PerfectHash.build(names);
+    s.append("  /**\n   * Looks up the keys by name, with a table built at compile time")
+        .append(table.perfect ? " without collisions" : "").append(".\n   */\n");
+    s.append("  public static final ").append(REGISTRY).append(" REGISTRY = new ").append(REGISTRY)
+        .append("(KEYS,\n      new int[] {");
+    appendInts(s, table.displacements);
+    s.append("},\n      new int[] {");
+    appendInts(s, table.slots);
+    s.append("});\n\n");
+
+    for (final Accessor a : accessors) {
+      s.append("  private final ").append(a.returnType).append(' ').append(a.methodName)
+          .append(";\n");
+    }
+    s.append("\n  private ").append(className).append("(final ").append(SNAPSHOT)
+        .append(" snapshot) {\n");
+    for (final Accessor a : accessors) {
+      s.append("    this.").append(a.methodName).append(" = snapshot.")
+          .append(a.primitive ? "getRequired(" : "get(").append(a.constantName).append(");\n");
+    }
+    s.append("  }\n\n");
+
+    s.append("  /**\n   * Resolve all of the keys from the source.\n   *\n")
+        .append("   * @param source the source of raw values\n")
+        .append("   * @return the configuration\n   */\n");
+    s.append("  public static ").append(className).append(" load(final ").append(SOURCE)
+        .append("<?> source) {\n    return new ").append(className).append('(').append(KEYS)
+        .append(".resolveAll(source, KEYS));\n  }\n\n");
+    s.append("  /**\n   * Use the values of the keys which were already resolved in a snapshot.\n")
+        .append("   *\n   * @param snapshot a snapshot which contains all of the keys\n")
+        .append("   * @return the configuration\n   */\n");
+    s.append("  public static ").append(className).append(" of(final ").append(SNAPSHOT)
+        .append(" snapshot) {\n    return new ").append(className).append("(snapshot);\n  }\n");
+
+    for (final Accessor a : accessors) {
+      s.append("\n  @java.lang.Override\n  public ").append(a.returnType).append(' ')
+          .append(a.methodName).append("() {\n    return ").append(a.methodName)
+          .append(";\n  }\n");
+    }
+
+    // only the names of the keys, because values may be secrets
+    final StringBuilder keyNames = new StringBuilder(simpleName(interfaceName)).append('{');
+    for (int i = 0; i < accessors.size(); i++) {
+      keyNames.append(i == 0 ? "" : ", ").append(accessors.get(i).keyName);
+    }
+    s.append("\n  @java.lang.Override\n  public java.lang.String toString() {\n")
+        .append("    return ").append(literal(keyNames.append('}').toString()))
+        .append(";\n  }\n\n}\n");
+    out.write(s.toString());
+  }
+
+  private static void appendInts(final StringBuilder s, final int[] values) {
+    for (int i = 0; i < values.length; i++) {
+      s.append(i == 0 ? "" : ", ").append(values[i]);
+    }
+  }
+
+  private String literal(final String value) {
+    return elements.getConstantExpression(value);
+  }
+
+  private static String simpleName(final String qualifiedName) {
+    return qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+  }
+
+}
@@ -0,0 +1,344 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import net.revelc.code.blazon.ConfigKey;
+import net.revelc.code.blazon.Type;
+
+/**
+ * Generates an implementation of each interface whose methods are annotated with
+ * {@link ConfigKey}, as described there. It is not registered as a service, so it never runs
+ * unless a build asks for it, with <code>-processor
+ * net.revelc.code.blazon.processor.ConfigKeyProcessor</code>, or the
+ * <code>annotationProcessors</code> of the maven-compiler-plugin.
+ *
+ * <div>The generated class also has a {@link net.revelc.code.blazon.KeyRegistry} of its keys, with
+ * a hash table of their names built by {@link PerfectHash}. The processor never loads or runs the
+ * {@link Type}s of the keys, so the descriptions of the types are built at run time, when they are
+ * first looked up.</div>
+ */
+@SupportedAnnotationTypes("net.revelc.code.blazon.ConfigKey")
+public final class ConfigKeyProcessor extends AbstractProcessor {
+
+  /**
+   * The suffix appended to the name of an interface to name its generated implementation.
+   */
+  public static final String SUFFIX = "_Blazon";
+
+  // the names of the constants which the generated class always has
+  private static final Set<String> RESERVED =
+      new HashSet<>(Arrays.asList("KEYS", "REGISTRY"));
+
+  private final Set<String> processed = new HashSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(final Set<? extends TypeElement> annotations,
+      final RoundEnvironment round) {
+    final TypeElement configKey =
+        processingEnv.getElementUtils().getTypeElement(ConfigKey.class.getCanonicalName());
+    final Set<TypeElement> interfaces = new LinkedHashSet<>();
+    for (final Element element : round.getElementsAnnotatedWith(configKey)) {
+      final Element enclosing = element.getEnclosingElement();
+      if (enclosing.getKind() != ElementKind.INTERFACE) {
+        error(element, "@ConfigKey is only allowed on methods of interfaces");
+      } else {
+        interfaces.add((TypeElement) enclosing);
+      }
+    }
+    for (final TypeElement iface : interfaces) {
+      if (processed.add(iface.getQualifiedName().toString())) {
+        final List<Accessor> accessors = readAccessors(iface, configKey);
+        if (accessors != null) {
+          write(iface, accessors);
+        }
+      }
+    }
+    return true;
+  }
+
+  // returns null if there were errors, which have been reported
+  private List<Accessor> readAccessors(final TypeElement iface, final TypeElement configKey) {
+    boolean valid = true;
+    if (!iface.getTypeParameters().isEmpty()) {
+      error(iface, "A configuration interface can't have type parameters");
+      valid = false;
+    }
+    for (Element e = iface; e instanceof TypeElement; e = e.getEnclosingElement()) {
+      if (e.getModifiers().contains(Modifier.PRIVATE)) {
+        error(iface, "A configuration interface can't be private");
+        valid = false;
+      }
+    }
+    final List<Accessor> accessors = new ArrayList<>();
+    final Set<String> constants = new HashSet<>();
+    final Set<String> keyNames = new HashSet<>();
+    final Elements elements = processingEnv.getElementUtils();
+    for (final ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(iface))) {
+      if (!method.getModifiers().contains(Modifier.ABSTRACT) || isObjectMethod(method)) {
+        continue;
+      }
+      final AnnotationMirror annotation = findAnnotation(method, configKey);
+      if (annotation == null) {
+        error(method, "Method %s of configuration interface %s must be annotated with @ConfigKey",
+            method.getSimpleName(), iface.getQualifiedName());
+        valid = false;
+        continue;
+      }
+      final Accessor accessor = readAccessor(method, annotation);
+      if (accessor == null) {
+        valid = false;
+      } else if (RESERVED.contains(accessor.constantName)
+          || !constants.add(accessor.constantName)) {
+        error(method, "The constant name %s of method %s is already used", accessor.constantName,
+            method.getSimpleName());
+        valid = false;
+      } else if (!keyNames.add(accessor.keyName)) {
+        error(method, "The key %s is already used by another method", accessor.keyName);
+        valid = false;
+      } else {
+        accessors.add(accessor);
+      }
+    }
+    return valid ? accessors : null;
+  }
+
+  private static boolean isObjectMethod(final ExecutableElement method) {
+    final String name = method.getSimpleName().toString();
+    final int parameters = method.getParameters().size();
+    return parameters == 0 && (name.equals("toString") || name.equals("hashCode"))
+        || parameters == 1 && name.equals("equals");
+  }
+
+  private AnnotationMirror findAnnotation(final Element element, final TypeElement annotation) {
+    final Types types = processingEnv.getTypeUtils();
+    for (final AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      if (types.isSameType(mirror.getAnnotationType(), annotation.asType())) {
+        return mirror;
+      }
+    }
+    return null;
+  }
+
+  // returns null if there were errors, which have been reported
+  private Accessor readAccessor(final ExecutableElement method, final AnnotationMirror annotation) {
+    final Types types = processingEnv.getTypeUtils();
+    String keyName = null;
+    TypeMirror holder = null;
+    String field = "";
+    String rawDefault = null;
+    boolean valid = true;
+    final Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+        processingEnv.getElementUtils().getElementValuesWithDefaults(annotation);
+    for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values
+        .entrySet()) {
+      final Object value = entry.getValue().getValue();
+      switch (entry.getKey().getSimpleName().toString()) {
+        case "value":
+          keyName = (String) value;
+          break;
+        case "type":
+          holder = (TypeMirror) value;
+          break;
+        case "field":
+          field = (String) value;
+          break;
+        case "defaultValue":
+          final List<?> defaults = (List<?>) value;
+          if (defaults.size() > 1) {
+            error(method, "At most one default value may be given");
+            valid = false;
+          } else if (defaults.size() == 1) {
+            rawDefault = (String) ((AnnotationValue) defaults.get(0)).getValue();
+          }
+          break;
+        default:
+          break;
+      }
+    }
+    if (!method.getParameters().isEmpty() || !method.getTypeParameters().isEmpty()) {
+      error(method, "A configuration method can't have parameters or type parameters");
+      valid = false;
+    }
+    final TypeMirror returnType = method.getReturnType();
+    if (returnType.getKind() == TypeKind.VOID) {
+      error(method, "A configuration method must return a value");
+      return null;
+    }
+    if (holder == null || holder.getKind() != TypeKind.DECLARED) {
+      error(method, "The type of a key must be a class");
+      return null;
+    }
+
+    final TypeElement holderElement = (TypeElement) types.asElement(holder);
+    final TypeMirror typeOfType;
+    final String typeExpression;
+    if (field.isEmpty()) {
+      if (!hasPublicNoArgConstructor(holderElement)
+          || holderElement.getModifiers().contains(Modifier.ABSTRACT)
+          || !holderElement.getTypeParameters().isEmpty()) {
+        error(method, "%s must be a concrete, non-generic class with a public constructor without "
+            + "parameters, or a field must be given", holderElement.getQualifiedName());
+        return null;
+      }
+      typeOfType = holder;
+      typeExpression = "new " + holderElement.getQualifiedName() + "()";
+    } else {
+      final VariableElement variable = findField(holderElement, field);
+      if (variable == null || !variable.getModifiers().contains(Modifier.STATIC)
+          || !variable.getModifiers().contains(Modifier.PUBLIC)) {
+        error(method, "%s does not have a public static field named %s",
+            holderElement.getQualifiedName(), field);
+        return null;
+      }
+      typeOfType = variable.asType();
+      typeExpression = holderElement.getQualifiedName() + "." + field;
+    }
+
+    final TypeMirror valueType = typeArgumentOf(typeOfType);
+    if (valueType == null) {
+      error(method, "%s is not a parameterized %s", typeOfType, Type.class.getSimpleName());
+      return null;
+    }
+    final boolean primitive = returnType.getKind().isPrimitive();
+    final TypeMirror boxed =
+        primitive ? types.boxedClass((PrimitiveType) returnType).asType() : returnType;
+    if (!types.isAssignable(valueType, boxed)) {
+      error(method, "The type %s produces values of %s, which can't be returned as %s",
+          typeOfType, valueType, returnType);
+      return null;
+    }
+    if (!valid) {
+      return null;
+    }
+    return new Accessor(method.getSimpleName().toString(), keyName, returnType.toString(),
+        valueType.toString(), primitive, typeExpression, rawDefault);
+  }
+
+  private static boolean hasPublicNoArgConstructor(final TypeElement element) {
+    for (final ExecutableElement constructor : ElementFilter
+        .constructorsIn(element.getEnclosedElements())) {
+      if (constructor.getParameters().isEmpty()
+          && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private VariableElement findField(final TypeElement element, final String name) {
+    for (final VariableElement variable : ElementFilter
+        .fieldsIn(processingEnv.getElementUtils().getAllMembers(element))) {
+      if (variable.getSimpleName().contentEquals(name)) {
+        return variable;
+      }
+    }
+    return null;
+  }
+
+  // finds T in the Type<T> which the given type extends, or null if it is not a Type
+  private TypeMirror typeArgumentOf(final TypeMirror type) {
+    final Types types = processingEnv.getTypeUtils();
+    final TypeMirror erasedType = types.erasure(processingEnv.getElementUtils()
+        .getTypeElement(Type.class.getCanonicalName()).asType());
+    final Queue<TypeMirror> pending = new ArrayDeque<>();
+    pending.add(type);
+    while (!pending.isEmpty()) {
+      final TypeMirror candidate = pending.remove();
+      if (types.isSameType(types.erasure(candidate), erasedType)) {
+        final List<? extends TypeMirror> arguments = ((DeclaredType) candidate).getTypeArguments();
+        if (arguments.isEmpty() || arguments.get(0).getKind() != TypeKind.DECLARED) {
+          return null;
+        }
+        return arguments.get(0);
+      }
+      pending.addAll(types.directSupertypes(candidate));
+    }
+    return null;
+  }
+
+  private void write(final TypeElement iface, final List<Accessor> accessors) {
+    final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(iface);
+    final String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+    final String className = generatedName(iface);
+    final String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+    try {
+      final JavaFileObject file =
+          processingEnv.getFiler().createSourceFile(qualifiedName, iface);
+      try (Writer writer = file.openWriter()) {
+        new ConfigClassWriter(processingEnv.getElementUtils(), packageName, className,
+            iface.getQualifiedName().toString(), accessors).write(writer);
+      }
+    } catch (final IOException e) {
+      error(iface, "Unable to write %s: %s", qualifiedName, e.getMessage());
+    }
+  }
+
+  /**
+   * The simple name of the class generated for an interface, which includes the names of the
+   * classes it is nested in.
+   */
+  static String generatedName(final TypeElement iface) {
+    final StringBuilder name = new StringBuilder(iface.getSimpleName());
+    for (Element e = iface.getEnclosingElement(); e instanceof TypeElement;
+        e = e.getEnclosingElement()) {
+      name.insert(0, '_').insert(0, e.getSimpleName());
+    }
+    return name.append(SUFFIX).toString();
+  }
+
+  private void error(final Element element, final String format, final Object... args) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(format, args),
+        element);
+  }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import net.revelc.code.blazon.KeyRegistry;
+
+/**
+ * Builds the hash table of a {@link KeyRegistry} at compile time, by hashing and displacing. The
+ * names are hashed into buckets of about two names each, and then, from the largest bucket to the
+ * smallest, a displacement is searched for which places all of the names in the bucket in free
+ * slots. If no displacement is found for some bucket, which is only likely if names have the same
+ * {@link String#hashCode()}, all of the displacements are zero, and the names are placed by linear
+ * probing, which the registry also supports.
+ */
+final class PerfectHash {
+
+  private static final int DISPLACEMENTS = 1 << 16;
+
+  final int[] displacements;
+  final int[] slots;
+  final boolean perfect;
+
+  private PerfectHash(final int[] displacements, final int[] slots, final boolean perfect) {
+    this.displacements = displacements;
+    this.slots = slots;
+    this.perfect = perfect;
+  }
+
+  static PerfectHash build(final List<String> names) {
+    // at least twice as many slots as names, so probes for missing names end quickly
+    final int size = Integer.highestOneBit(Math.max(1, names.size()) * 2 - 1) << 1;
+    final int[] displacements = new int[Math.max(1, size / 4)];
+    final int[] slots = new int[size];
+    Arrays.fill(slots, -1);
+
+    final List<List<Integer>> buckets = new ArrayList<>(displacements.length);
+    final List<Integer> order = new ArrayList<>(displacements.length);
+    for (int b = 0; b < displacements.length; b++) {
+      buckets.add(new ArrayList<>());
+      order.add(b);
+    }
+    for (int i = 0; i < names.size(); i++) {
+      buckets.get(KeyRegistry.hash(names.get(i), 0) & (displacements.length - 1)).add(i);
+    }
+    order.sort(Comparator.comparingInt((Integer b) -> buckets.get(b).size()).reversed());
+
+    for (final int b : order) {
+      final List<Integer> bucket = buckets.get(b);
+      if (bucket.isEmpty()) {
+        break;
+      }
+      final int displacement = displace(names, bucket, slots);
+      if (displacement < 0) {
+        return probed(names, size);
+      }
+      displacements[b] = displacement;
+      for (final int i : bucket) {
+        slots[KeyRegistry.hash(names.get(i), displacement) & (size - 1)] = i;
+      }
+    }
+    return new PerfectHash(displacements, slots, true);
+  }
+
+  // finds a displacement which places the names of the bucket in distinct free slots, or -1
+  private static int displace(final List<String> names, final List<Integer> bucket,
+      final int[] slots) {
+    final int mask = slots.length - 1;
+    final int[] placed = new int[bucket.size()];
+    search: for (int displacement = 0; displacement < DISPLACEMENTS; displacement++) {
+      for (int j = 0; j < bucket.size(); j++) {
+        final int slot = KeyRegistry.hash(names.get(bucket.get(j)), displacement) & mask;
+        if (slots[slot] >= 0) {
+          continue search;
+        }
+        for (int k = 0; k < j; k++) {
+          if (placed[k] == slot) {
+            continue search;
+          }
+        }
+        placed[j] = slot;
+      }
+      return displacement;
+    }
+    return -1;
+  }
+
+  private static PerfectHash probed(final List<String> names, final int size) {
+    final int[] slots = new int[size];
+    Arrays.fill(slots, -1);
+    final int mask = size - 1;
+    for (int i = 0; i < names.size(); i++) {
+      int slot = KeyRegistry.hash(names.get(i), 0) & mask;
+      while (slots[slot] >= 0) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = i;
+    }
+    return new PerfectHash(new int[Math.max(1, size / 4)], slots, false);
+  }
+
+}
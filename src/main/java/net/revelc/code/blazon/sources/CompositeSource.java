@@ -0,0 +1,220 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import net.revelc.code.blazon.Source;
+
+/**
+ * A {@link Source} which stacks other sources in layers, such as defaults, then a site file, then
+ * the environment, then command-line overrides. Layers are given in the order they are stacked, so
+ * a value in a later layer takes precedence over a value for the same key in an earlier layer.
+ *
+ * <div>Each run of adjacent immutable layers which are {@link Source#isEnumerable() enumerable},
+ * such as frozen {@link PropertiesSource}s and {@link MapSource}s of immutable maps, is merged when
+ * the composite is created into a single table of the winning value for each key, so looking up a
+ * key in those layers takes one hash probe instead of one per layer. Other layers are probed in
+ * order of precedence, on every lookup. This includes {@link MappedPropertiesSource}s, which are
+ * never merged, because copying their values onto the heap would defeat mapping them.</div>
+ */
+public final class CompositeSource extends Source<List<Source<?>>> {
+
+  /**
+   * The winning values of a run of adjacent immutable layers.
+   */
+  private static final class MergedLayers extends Source<List<Source<?>>> {
+    private final StringTable table;
+
+    private MergedLayers(final List<Source<?>> layers) {
+      super(layers);
+      final Map<String, String> merged = new HashMap<>();
+      for (final Source<?> layer : layers) {
+        layer.forEachEntry(merged::put);
+      }
+      this.table = StringTable.copyOf(merged);
+    }
+
+    @Override
+    public String getValue(final String key) {
+      return table.get(key);
+    }
+
+    @Override
+    public boolean isImmutable() {
+      return true;
+    }
+
+    @Override
+    public boolean isEnumerable() {
+      return true;
+    }
+
+    @Override
+    public void forEachEntry(final BiConsumer<String, String> action) {
+      table.forEachEntry(action);
+    }
+  }
+
+  // in order of decreasing precedence
+  private final Source<?>[] probes;
+
+  /**
+   * Stack the given sources.
+   *
+   * @param layers the sources, from lowest to highest precedence
+   */
+  public CompositeSource(final Source<?>... layers) {
+    this(Arrays.asList(layers));
+  }
+
+  /**
+   * Stack the given sources.
+   *
+   * @param layers the sources, from lowest to highest precedence
+   */
+  public CompositeSource(final List<? extends Source<?>> layers) {
+    super(ImmutableList.<Source<?>>copyOf(layers));
+    final List<Source<?>> probes = new ArrayList<>();
+    final List<Source<?>> run = new ArrayList<>();
+    for (final Source<?> layer : getSource()) {
+      if (isMergeable(layer)) {
+        run.add(layer);
+      } else {
+        addRun(probes, run);
+        probes.add(layer);
+      }
+    }
+    addRun(probes, run);
+    this.probes = probes.toArray(new Source<?>[probes.size()]);
+    // reverse, so the highest precedence is probed first
+    for (int i = 0, j = this.probes.length - 1; i < j; i++, j--) {
+      final Source<?> probe = this.probes[i];
+      this.probes[i] = this.probes[j];
+      this.probes[j] = probe;
+    }
+  }
+
+  private static void addRun(final List<Source<?>> probes, final List<Source<?>> run) {
+    if (run.size() == 1) {
+      probes.add(run.get(0));
+    } else if (!run.isEmpty()) {
+      probes.add(new MergedLayers(ImmutableList.copyOf(run)));
+    }
+    run.clear();
+  }
+
+  private static boolean isMergeable(final Source<?> source) {
+    return source.isImmutable() && source.isEnumerable()
+        && !(source instanceof MappedPropertiesSource);
+  }
+
+  @Override
+  public String getValue(final String key) {
+    Preconditions.checkNotNull(key);
+    for (final Source<?> probe : probes) {
+      final String value = probe.getValue(key);
+      if (value != null) {
+        return value;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Find the layer which supplies the value for the given key, which is the layer with the highest
+   * precedence which has a value for it.
+   *
+   * @param key the key
+   * @return the layer, or null if no layer has a value for the key
+   */
+  public Source<?> getLayer(final String key) {
+    Preconditions.checkNotNull(key);
+    final List<Source<?>> layers = getSource();
+    for (int i = layers.size() - 1; i >= 0; i--) {
+      if (layers.get(i).getValue(key) != null) {
+        return layers.get(i);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The generation of a composite source is the sum of the generations of its layers, so it
+   * increases whenever any of them does, unless any layer is {@link Source#UNVERSIONED}.
+   */
+  @Override
+  public long getGeneration() {
+    long sum = 0L;
+    for (final Source<?> probe : probes) {
+      final long generation = probe.getGeneration();
+      if (generation == UNVERSIONED) {
+        return UNVERSIONED;
+      }
+      sum += generation;
+    }
+    return sum;
+  }
+
+  /**
+   * A composite source is enumerable if all of its layers are.
+   */
+  @Override
+  public boolean isEnumerable() {
+    for (final Source<?> probe : probes) {
+      if (!probe.isEnumerable()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Pass each key which has a value in any layer, and its value in the layer with the highest
+   * precedence, to the action.
+   */
+  @Override
+  public void forEachEntry(final BiConsumer<String, String> action) {
+    if (probes.length == 1) {
+      probes[0].forEachEntry(action);
+      return;
+    }
+    final Map<String, String> winners = new HashMap<>();
+    for (int i = probes.length - 1; i >= 0; i--) {
+      probes[i].forEachEntry(winners::put);
+    }
+    winners.forEach(action);
+  }
+
+  /**
+   * A composite source is immutable if all of its layers are.
+   */
+  @Override
+  public boolean isImmutable() {
+    for (final Source<?> probe : probes) {
+      if (!probe.isImmutable()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Locale;
+import java.util.Map;
+import net.revelc.code.blazon.Source;
+
+/**
+ * A {@link Source} which serves values from a snapshot of the environment variables, taken when it
+ * is created. Keys are translated to the names of environment variables by a mapping function,
+ * which, by default, converts a key like <code>server1.port</code> to <code>SERVER1_PORT</code>,
+ * optionally with a prefix.
+ *
+ * <div>The keys of an application are usually known when it starts, so they may be given when the
+ * source is created. They are translated once, into an immutable index from each key to its value,
+ * and looking one of them up is a single lock-free hash lookup. Other keys are translated each time
+ * they are looked up.</div>
+ */
+public final class EnvironmentSource extends Source<Map<String, String>> {
+
+  private final Function<String, String> mapping;
+  private final ImmutableSet<String> indexed;
+  private final ImmutableMap<String, String> index;
+
+  /**
+   * Take a snapshot of the environment, and translate keys with the default mapping, without a
+   * prefix.
+   */
+  public EnvironmentSource() {
+    this("");
+  }
+
+  /**
+   * Take a snapshot of the environment, and translate keys with the default mapping, with the given
+   * prefix.
+   *
+   * @param prefix the prefix of the names of the environment variables, such as
+   *        <code>MYAPP_</code>
+   */
+  public EnvironmentSource(final String prefix) {
+    this(prefix, ImmutableList.<String>of());
+  }
+
+  /**
+   * Take a snapshot of the environment, translate keys with the default mapping, with the given
+   * prefix, and index the given keys.
+   *
+   * @param prefix the prefix of the names of the environment variables, such as
+   *        <code>MYAPP_</code>
+   * @param keys the keys to translate now, which may be empty
+   */
+  public EnvironmentSource(final String prefix, final Iterable<String> keys) {
+    this(System.getenv(), defaultMapping(prefix), keys);
+  }
+
+  /**
+   * Take a snapshot of the given environment, and translate keys with the given mapping.
+   *
+   * @param environment the environment variables, by name
+   * @param mapping a function which translates each key to the name of an environment variable,
+   *        which must not have side effects
+   */
+  public EnvironmentSource(final Map<String, String> environment,
+      final Function<String, String> mapping) {
+    this(environment, mapping, ImmutableList.<String>of());
+  }
+
+  /**
+   * Take a snapshot of the given environment, translate keys with the given mapping, and index the
+   * given keys.
+   *
+   * @param environment the environment variables, by name
+   * @param mapping a function which translates each key to the name of an environment variable,
+   *        which must not have side effects
+   * @param keys the keys to translate now, which may be empty
+   */
+  public EnvironmentSource(final Map<String, String> environment,
+      final Function<String, String> mapping, final Iterable<String> keys) {
+    super(ImmutableMap.copyOf(environment));
+    this.mapping = Preconditions.checkNotNull(mapping);
+    this.indexed = ImmutableSet.copyOf(keys);
+    final ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+    for (final String key : indexed) {
+      final String value = getSource().get(getEnvironmentName(key));
+      if (value != null) {
+        builder.put(key, value);
+      }
+    }
+    this.index = builder.build();
+  }
+
+  /**
+   * Get the default mapping, which replaces each character in a key which is not an ASCII letter
+   * or digit with an underscore, prepends the prefix, and converts the result to upper case.
+   *
+   * @param prefix the prefix, which may be empty
+   * @return the mapping
+   */
+  public static Function<String, String> defaultMapping(final String prefix) {
+    Preconditions.checkNotNull(prefix);
+    return key -> {
+      final StringBuilder name = new StringBuilder(prefix.length() + key.length()).append(prefix);
+      for (int i = 0; i < key.length(); i++) {
+        final char c = key.charAt(i);
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+          name.append(c);
+        } else {
+          name.append('_');
+        }
+      }
+      return name.toString().toUpperCase(Locale.ROOT);
+    };
+  }
+
+  /**
+   * Get the name of the environment variable which supplies the value of the given key.
+   *
+   * @param key the key
+   * @return the name of the environment variable
+   */
+  public String getEnvironmentName(final String key) {
+    return Preconditions.checkNotNull(mapping.apply(key), "No name for key %s", key);
+  }
+
+  @Override
+  public String getValue(final String key) {
+    final String value = index.get(key);
+    if (value != null || indexed.contains(key)) {
+      return value;
+    }
+    return getSource().get(getEnvironmentName(key));
+  }
+
+  /**
+   * An environment source is immutable, because it serves a snapshot of the environment.
+   */
+  @Override
+  public boolean isImmutable() {
+    return true;
+  }
+
+}
@@ -14,7 +14,9 @@
 
 package net.revelc.code.blazon.sources;
 
+import com.google.common.collect.ImmutableMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import net.revelc.code.blazon.Source;
 
 /**
@@ -23,11 +25,15 @@ import net.revelc.code.blazon.Source;
  */
 public class MapSource extends Source<Map<?, ?>> {
 
+  private final boolean immutable;
+
   /**
    * Utilize a Map as the source.
    */
   public MapSource(final Map<?, ?> source) {
     super(source);
+    this.immutable = source instanceof ImmutableMap
+        && source.values().stream().allMatch(value -> value instanceof String);
   }
 
   @Override
@@ -36,4 +42,35 @@ public class MapSource extends Source<Map<?, ?>> {
     return value == null ? null : value.toString();
   }
 
+  /**
+   * A map source is immutable if its map is an {@link ImmutableMap} whose values are all
+   * {@link String}s. The {@link #toString()} of any other value might change, so a map holding one
+   * is never treated as immutable.
+   */
+  @Override
+  public boolean isImmutable() {
+    return immutable;
+  }
+
+  /**
+   * A map source is enumerable. If its map is mutable, it must not be modified while its entries
+   * are being listed.
+   */
+  @Override
+  public boolean isEnumerable() {
+    return true;
+  }
+
+  /**
+   * Pass each entry which can be found by {@link #getValue(String)} to the action.
+   */
+  @Override
+  public void forEachEntry(final BiConsumer<String, String> action) {
+    for (final Map.Entry<?, ?> entry : getSource().entrySet()) {
+      if (entry.getKey() instanceof String && entry.getValue() != null) {
+        action.accept((String) entry.getKey(), entry.getValue().toString());
+      }
+    }
+  }
+
 }
@@ -0,0 +1,401 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.function.BiConsumer;
+import net.revelc.code.blazon.Source;
+
+/**
+ * A {@link Source} which memory-maps a properties file, for very large files. Instead of creating a
+ * {@link String} for every key and value, as {@link Properties} does, the file is scanned once to
+ * build a compact open-addressing index from the hash of each key to the byte ranges of the key and
+ * its value. Only the values which are requested are decoded. The file is interpreted with the same
+ * syntax and ISO 8859-1 encoding as {@link Properties#load(InputStream)}, including comments, line
+ * continuations, and escapes. When a key appears more than once, the last value is used.
+ *
+ * <div>The file must not be modified while this source is in use. Changes made after the index was
+ * built are not supported, and may produce unpredictable results.</div>
+ */
+public final class MappedPropertiesSource extends Source<Path> {
+
+  private static final int KEY_START = 0;
+  private static final int KEY_END = 1;
+  private static final int VALUE_START = 2;
+  private static final int VALUE_END = 3;
+  private static final int FIELDS = 4;
+
+  private final ByteBuffer buffer;
+  // the byte ranges of each entry's key and value, FIELDS per entry
+  private final int[] ranges;
+  // the hash of each entry's decoded key, compatible with String.hashCode()
+  private final int[] hashes;
+  // open-addressing table of entry numbers, plus one; zero marks an empty slot
+  private final int[] table;
+  private final int size;
+
+  /**
+   * Map and index the given properties file.
+   *
+   * @param file the properties file
+   * @throws IOException if the file can't be read
+   * @throws IllegalArgumentException if the file is too large to map, or contains a malformed
+   *         <code>\\uxxxx</code> escape, as {@link Properties#load(InputStream)} does
+   */
+  public MappedPropertiesSource(final Path file) throws IOException {
+    super(file);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final long length = channel.size();
+      Preconditions.checkArgument(length <= Integer.MAX_VALUE, "File too large to map: %s", file);
+      buffer = channel.map(MapMode.READ_ONLY, 0, length);
+    }
+
+    final Scanner scanner = new Scanner();
+    scanner.scan();
+    this.ranges = scanner.ranges;
+    this.hashes = scanner.hashes;
+    // keep the table at most half full
+    this.table = new int[Integer.highestOneBit(Math.max(1, scanner.count) * 2 - 1) << 1];
+
+    int distinct = 0;
+    for (int entry = 0; entry < scanner.count; entry++) {
+      if (insert(entry)) {
+        distinct++;
+      }
+    }
+    this.size = distinct;
+  }
+
+  /**
+   * Get the number of distinct keys in the file.
+   *
+   * @return the number of keys
+   */
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String getValue(final String key) {
+    final int hash = key.hashCode();
+    final int mask = table.length - 1;
+    for (int slot = spread(hash) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      final int entry = table[slot] - 1;
+      if (hashes[entry] == hash && keyEquals(entry, key)) {
+        return decode(ranges[entry * FIELDS + VALUE_START], ranges[entry * FIELDS + VALUE_END]);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * A mapped properties source is immutable, because its file must not be modified while it is in
+   * use.
+   */
+  @Override
+  public boolean isImmutable() {
+    return true;
+  }
+
+  /**
+   * A mapped properties source is enumerable.
+   */
+  @Override
+  public boolean isEnumerable() {
+    return true;
+  }
+
+  /**
+   * Decode each distinct key, and its last value, and pass them to the action.
+   */
+  @Override
+  public void forEachEntry(final BiConsumer<String, String> action) {
+    for (final int slot : table) {
+      if (slot != 0) {
+        final int entry = slot - 1;
+        action.accept(decode(ranges[entry * FIELDS + KEY_START], ranges[entry * FIELDS + KEY_END]),
+            decode(ranges[entry * FIELDS + VALUE_START], ranges[entry * FIELDS + VALUE_END]));
+      }
+    }
+  }
+
+  private static int spread(final int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  // adds the entry to the table, replacing an earlier entry with the same key
+  private boolean insert(final int entry) {
+    final int mask = table.length - 1;
+    int slot = spread(hashes[entry]) & mask;
+    for (; table[slot] != 0; slot = (slot + 1) & mask) {
+      final int other = table[slot] - 1;
+      if (hashes[other] == hashes[entry] && keysEqual(other, entry)) {
+        table[slot] = entry + 1;
+        return false;
+      }
+    }
+    table[slot] = entry + 1;
+    return true;
+  }
+
+  private boolean keyEquals(final int entry, final String key) {
+    final int end = ranges[entry * FIELDS + KEY_END];
+    int pos = ranges[entry * FIELDS + KEY_START];
+    for (int i = 0; i < key.length(); i++) {
+      final long next = next(pos, end);
+      if (next < 0 || (char) next != key.charAt(i)) {
+        return false;
+      }
+      pos = (int) (next >>> 16);
+    }
+    return next(pos, end) < 0;
+  }
+
+  private boolean keysEqual(final int entry1, final int entry2) {
+    final int end1 = ranges[entry1 * FIELDS + KEY_END];
+    final int end2 = ranges[entry2 * FIELDS + KEY_END];
+    int pos1 = ranges[entry1 * FIELDS + KEY_START];
+    int pos2 = ranges[entry2 * FIELDS + KEY_START];
+    while (true) {
+      final long next1 = next(pos1, end1);
+      final long next2 = next(pos2, end2);
+      if (next1 < 0 || next2 < 0) {
+        return next1 < 0 && next2 < 0;
+      }
+      if ((char) next1 != (char) next2) {
+        return false;
+      }
+      pos1 = (int) (next1 >>> 16);
+      pos2 = (int) (next2 >>> 16);
+    }
+  }
+
+  private int hash(final int start, final int end) {
+    int hash = 0;
+    int pos = start;
+    long next;
+    while ((next = next(pos, end)) >= 0) {
+      hash = 31 * hash + (char) next;
+      pos = (int) (next >>> 16);
+    }
+    return hash;
+  }
+
+  private String decode(final int start, final int end) {
+    final StringBuilder value = new StringBuilder(end - start);
+    int pos = start;
+    long next;
+    while ((next = next(pos, end)) >= 0) {
+      value.append((char) next);
+      pos = (int) (next >>> 16);
+    }
+    return value.toString();
+  }
+
+  /**
+   * Decode the next character in the range, processing escapes and skipping line continuations.
+   *
+   * @return -1 if there are no more characters, or the position after the decoded character
+   *         shifted left by 16 bits, combined with the decoded character in the lowest 16 bits
+   */
+  private long next(final int start, final int end) {
+    int pos = start;
+    while (pos < end) {
+      final int b = buffer.get(pos++) & 0xff;
+      if (b != '\\') {
+        return ((long) pos << 16) | b;
+      }
+      if (pos == end) {
+        // a trailing backslash is dropped
+        return -1;
+      }
+      final int c = buffer.get(pos++) & 0xff;
+      switch (c) {
+        case '\r':
+          if (pos < end && buffer.get(pos) == '\n') {
+            pos++;
+          }
+          pos = skipWhitespace(pos, end);
+          break;
+        case '\n':
+          pos = skipWhitespace(pos, end);
+          break;
+        case 'u':
+          return ((long) (pos + 4) << 16) | unicode(pos, end);
+        case 't':
+          return ((long) pos << 16) | '\t';
+        case 'n':
+          return ((long) pos << 16) | '\n';
+        case 'r':
+          return ((long) pos << 16) | '\r';
+        case 'f':
+          return ((long) pos << 16) | '\f';
+        default:
+          return ((long) pos << 16) | c;
+      }
+    }
+    return -1;
+  }
+
+  private char unicode(final int start, final int end) {
+    if (end - start < 4) {
+      throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+    }
+    int value = 0;
+    for (int pos = start; pos < start + 4; pos++) {
+      final int digit = Character.digit(buffer.get(pos), 16);
+      if (digit < 0) {
+        throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+      }
+      value = (value << 4) | digit;
+    }
+    return (char) value;
+  }
+
+  private int skipWhitespace(final int start, final int end) {
+    int pos = start;
+    while (pos < end && isWhitespace(buffer.get(pos))) {
+      pos++;
+    }
+    return pos;
+  }
+
+  private static boolean isWhitespace(final byte b) {
+    return b == ' ' || b == '\t' || b == '\f';
+  }
+
+  private static boolean isLineEnd(final byte b) {
+    return b == '\n' || b == '\r';
+  }
+
+  /**
+   * Finds the byte ranges of each key and value, following the rules of {@link Properties}.
+   */
+  private final class Scanner {
+    private final int limit = buffer.limit();
+    private int[] ranges = new int[FIELDS * 1024];
+    private int[] hashes = new int[1024];
+    private int count = 0;
+    private int pos = 0;
+
+    private void scan() {
+      while (pos < limit) {
+        pos = skipWhitespace(pos, limit);
+        if (pos == limit) {
+          break;
+        }
+        final byte first = buffer.get(pos);
+        if (isLineEnd(first)) {
+          pos++;
+        } else if (first == '#' || first == '!') {
+          while (pos < limit && !isLineEnd(buffer.get(pos))) {
+            pos++;
+          }
+        } else {
+          scanEntry();
+        }
+      }
+      ranges = Arrays.copyOf(ranges, count * FIELDS);
+      hashes = Arrays.copyOf(hashes, count);
+    }
+
+    private void scanEntry() {
+      final int keyStart = pos;
+      while (pos < limit) {
+        final byte b = buffer.get(pos);
+        if (b == '\\') {
+          skipEscape();
+        } else if (b == '=' || b == ':' || isWhitespace(b) || isLineEnd(b)) {
+          break;
+        } else {
+          pos++;
+        }
+      }
+      final int keyEnd = pos;
+
+      boolean separated = false;
+      while (pos < limit) {
+        final byte b = buffer.get(pos);
+        if (isWhitespace(b)) {
+          pos++;
+        } else if (!separated && (b == '=' || b == ':')) {
+          separated = true;
+          pos++;
+        } else if (b == '\\' && pos + 1 < limit && isLineEnd(buffer.get(pos + 1))) {
+          skipEscape();
+        } else {
+          break;
+        }
+      }
+      final int valueStart = pos;
+
+      while (pos < limit) {
+        final byte b = buffer.get(pos);
+        if (b == '\\') {
+          skipEscape();
+        } else if (isLineEnd(b)) {
+          break;
+        } else {
+          pos++;
+        }
+      }
+      add(keyStart, keyEnd, valueStart, pos);
+    }
+
+    // skips a backslash and the character it escapes, or the line continuation it starts
+    private void skipEscape() {
+      pos++;
+      if (pos == limit) {
+        return;
+      }
+      final byte escaped = buffer.get(pos++);
+      if (escaped == 'u') {
+        // validated now, so a malformed value fails here rather than when it's first looked up;
+        // a line end is not a hex digit, so checking up to the limit stops at the end of the line
+        unicode(pos, limit);
+      }
+      if (escaped == '\r' && pos < limit && buffer.get(pos) == '\n') {
+        pos++;
+      }
+      if (isLineEnd(escaped)) {
+        pos = skipWhitespace(pos, limit);
+      }
+    }
+
+    private void add(final int keyStart, final int keyEnd, final int valueStart,
+        final int valueEnd) {
+      if (count == hashes.length) {
+        hashes = Arrays.copyOf(hashes, count * 2);
+        ranges = Arrays.copyOf(ranges, count * 2 * FIELDS);
+      }
+      ranges[count * FIELDS + KEY_START] = keyStart;
+      ranges[count * FIELDS + KEY_END] = keyEnd;
+      ranges[count * FIELDS + VALUE_START] = valueStart;
+      ranges[count * FIELDS + VALUE_END] = valueEnd;
+      hashes[count] = hash(keyStart, keyEnd);
+      count++;
+    }
+  }
+
+}
@@ -14,24 +14,115 @@
 
 package net.revelc.code.blazon.sources;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Map;
 import java.util.Properties;
+import java.util.function.BiConsumer;
 import net.revelc.code.blazon.Source;
 
 /**
- * A {@link Source} which wraps {@link Properties}.
+ * A {@link Source} which wraps {@link Properties}. Lookups normally go through
+ * {@link Properties#getProperty(String)}, which synchronizes on the underlying {@link Hashtable}.
+ * For properties which will not change, {@link #frozen(Properties)} creates a source which copies
+ * them once into an immutable table, so lookups take no locks. A frozen source also keeps a sorted
+ * index of its entries for its {@link #subset(String)} views, which must otherwise check every
+ * property each time they are listed.
  */
 public class PropertiesSource extends Source<Properties> {
 
+  // null unless frozen
+  private final StringTable table;
+
   /**
    * Utilize Properties as the source.
    */
   public PropertiesSource(final Properties source) {
+    this(source, null);
+  }
+
+  private PropertiesSource(final Properties source, final StringTable table) {
     super(source);
+    this.table = table;
+  }
+
+  /**
+   * Utilize a frozen copy of the given Properties as the source. The string properties, including
+   * any defaults, are copied into an immutable open-addressing table, so lookups take no locks and
+   * don't need to walk the chain of defaults. Changes made to the properties afterwards are not
+   * seen by this source.
+   *
+   * @param source the properties to copy
+   * @return a new source, backed by the copied properties
+   */
+  public static PropertiesSource frozen(final Properties source) {
+    return new PropertiesSource(source, StringTable.copyOf(source));
+  }
+
+  /**
+   * Check whether this source was created by {@link #frozen(Properties)}.
+   *
+   * @return true if this source is backed by a frozen copy of its properties
+   */
+  public boolean isFrozen() {
+    return table != null;
+  }
+
+  /**
+   * A properties source is immutable if it is frozen.
+   */
+  @Override
+  public boolean isImmutable() {
+    return isFrozen();
+  }
+
+  /**
+   * A properties source is enumerable.
+   */
+  @Override
+  public boolean isEnumerable() {
+    return true;
+  }
+
+  /**
+   * Pass each string property, including any defaults, to the action. Unless this source is
+   * frozen, the properties are read while holding the lock on them, so they are consistent with
+   * each other, but the action is run after the lock is released.
+   */
+  @Override
+  public void forEachEntry(final BiConsumer<String, String> action) {
+    if (table != null) {
+      table.forEachEntry(action);
+    } else {
+      final Map<String, String> copy = new HashMap<>();
+      synchronized (getSource()) {
+        for (final String name : getSource().stringPropertyNames()) {
+          copy.put(name, getSource().getProperty(name));
+        }
+      }
+      copy.forEach(action);
+    }
   }
 
   @Override
   public String getValue(final String key) {
-    return getSource().getProperty(key);
+    return table == null ? getSource().getProperty(key) : table.get(key);
+  }
+
+  /**
+   * Retrieve the values of many keys at once. Unless this source is frozen, the values are read
+   * while holding the lock on the underlying properties, so they are consistent with each other,
+   * and the lock is acquired once for the whole batch.
+   */
+  @Override
+  public Map<String, String> getValues(final Collection<String> keys) {
+    if (table != null) {
+      return super.getValues(keys);
+    }
+    synchronized (getSource()) {
+      return super.getValues(keys);
+    }
   }
 
 }
@@ -0,0 +1,276 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import net.revelc.code.blazon.Key;
+import net.revelc.code.blazon.Source;
+
+/**
+ * A {@link Source} which reads a properties file, and reloads it whenever it changes. The file is
+ * watched with a {@link WatchService} on a background daemon thread, which waits for writes to stop
+ * for a short debounce period before reloading. Each reload parses the whole file into a new
+ * immutable map, which is published by replacing a single volatile reference, so readers never lock
+ * and never see a partially loaded file. If a reload fails, because the file can't be read or the
+ * new values fail to validate against the given {@link Key}s, the last good values are kept.
+ *
+ * <div>The file is read with {@link Properties#load(InputStream)}, so it is expected to be encoded
+ * in ISO 8859-1. Call {@link #close()} to stop watching the file. If its directory is deleted, or
+ * can no longer be watched, watching stops, and {@link #getLastFailure()} reports it; the last
+ * values loaded remain available.</div>
+ */
+public final class ReloadingFileSource extends Source<Path> implements Closeable {
+
+  private final long debounceMillis;
+  private final ImmutableList<Key<?>> validationKeys;
+  private final WatchService watchService;
+  private final Thread watcher;
+  private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+  private volatile ImmutableMap<String, String> values;
+  private volatile Exception lastFailure;
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * Load the properties file and start watching it for changes.
+   *
+   * @param file the properties file
+   * @param debounceMillis how long to wait, in milliseconds, after the last change to the file is
+   *        seen, before reloading it
+   * @param validationKeys the keys which must parse successfully for the file's values to be used
+   * @throws IOException if the file can't be read, or can't be watched
+   * @throws RuntimeException any exception thrown while validating the initial values
+   */
+  public ReloadingFileSource(final Path file, final long debounceMillis,
+      final Key<?>... validationKeys) throws IOException {
+    super(file.toAbsolutePath());
+    Preconditions.checkArgument(debounceMillis >= 0, "Debounce period cannot be negative: %s",
+        debounceMillis);
+    this.debounceMillis = debounceMillis;
+    this.validationKeys = ImmutableList.copyOf(Arrays.asList(validationKeys));
+    this.values = validate(load());
+
+    final Path directory = getSource().getParent();
+    this.watchService = directory.getFileSystem().newWatchService();
+    try {
+      directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+    } catch (final IOException | RuntimeException e) {
+      watchService.close();
+      throw e;
+    }
+    this.watcher = new Thread(this::watch, "blazon-reload-" + getSource().getFileName());
+    watcher.setDaemon(true);
+    watcher.start();
+  }
+
+  @Override
+  public String getValue(final String key) {
+    return values.get(key);
+  }
+
+  /**
+   * Retrieve the values of many keys at once. All of the values come from the same load of the
+   * file, even if it is reloaded while they are being retrieved.
+   */
+  @Override
+  public Map<String, String> getValues(final Collection<String> keys) {
+    final ImmutableMap<String, String> current = values;
+    final Map<String, String> found = new LinkedHashMap<>();
+    for (final String key : keys) {
+      final String value = current.get(Preconditions.checkNotNull(key));
+      if (value != null) {
+        found.put(key, value);
+      }
+    }
+    return ImmutableMap.copyOf(found);
+  }
+
+  /**
+   * A reloading file source is enumerable.
+   */
+  @Override
+  public boolean isEnumerable() {
+    return true;
+  }
+
+  /**
+   * Pass each entry to the action. All of the entries come from the same load of the file.
+   */
+  @Override
+  public void forEachEntry(final BiConsumer<String, String> action) {
+    values.forEach(action);
+  }
+
+  /**
+   * Get the exception which caused the most recent reload to fail, if it has failed since the last
+   * successful reload, or which was thrown by a listener after the most recent reload by the
+   * background thread, or the {@link IOException} which reports that the directory of the file can
+   * no longer be watched.
+   *
+   * @return the exception, or null if the most recent reload succeeded, and its listeners didn't
+   *         throw
+   */
+  public Exception getLastFailure() {
+    return lastFailure;
+  }
+
+  /**
+   * Add a listener to run after each successful reload, such as
+   * {@link net.revelc.code.blazon.ConfigWatcher#refresh()}. Listeners run on the thread which
+   * reloaded the file, which is usually the background thread watching it, so they should return
+   * quickly.
+   *
+   * @param listener the listener
+   */
+  public void addListener(final Runnable listener) {
+    listeners.add(Preconditions.checkNotNull(listener));
+  }
+
+  /**
+   * Remove a listener added by {@link #addListener(Runnable)}.
+   *
+   * @param listener the listener
+   * @return true if the listener was removed
+   */
+  public boolean removeListener(final Runnable listener) {
+    return listeners.remove(listener);
+  }
+
+  /**
+   * Reload the file now, without waiting for a change to be seen. If the file can't be read, or
+   * its values fail validation, the last good values are kept. Otherwise, the new values are
+   * published, and then the listeners are run. Reloads are serialized, so values are always
+   * published in the order the file was read, but listeners are run outside of the lock, so they
+   * may themselves read from this source.
+   *
+   * @return true if the new values were published
+   * @throws RuntimeException any exception thrown by a listener
+   */
+  public boolean reload() {
+    synchronized (this) {
+      try {
+        values = validate(load());
+        generation.incrementAndGet();
+        lastFailure = null;
+      } catch (final IOException | RuntimeException e) {
+        lastFailure = e;
+        return false;
+      }
+    }
+    for (final Runnable listener : listeners) {
+      listener.run();
+    }
+    return true;
+  }
+
+  /**
+   * The generation increases each time new values are published by {@link #reload()}.
+   */
+  @Override
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * Stop watching the file. The last values loaded remain available.
+   */
+  @Override
+  public void close() throws IOException {
+    watcher.interrupt();
+    watchService.close();
+  }
+
+  private ImmutableMap<String, String> load() throws IOException {
+    final Properties props = new Properties();
+    try (InputStream in = Files.newInputStream(getSource())) {
+      props.load(in);
+    }
+    return Maps.fromProperties(props);
+  }
+
+  private ImmutableMap<String, String> validate(final ImmutableMap<String, String> candidate) {
+    // not getValue, so the keys' cached values and metrics aren't affected by the candidate's
+    for (final Key<?> key : validationKeys) {
+      key.parseUnrecorded(candidate.get(key.getKey()));
+    }
+    return candidate;
+  }
+
+  private void watch() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        final WatchKey key = watchService.take();
+        boolean changed = isRelevant(key);
+        boolean valid = key.reset();
+        // wait until no more events arrive within the debounce period
+        WatchKey next;
+        while ((next = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+          changed |= isRelevant(next);
+          valid &= next.reset();
+        }
+        if (changed) {
+          try {
+            reload();
+          } catch (final RuntimeException e) {
+            // thrown by a listener; record it, and keep watching
+            lastFailure = e;
+          }
+        }
+        if (!valid) {
+          // the directory was deleted or became inaccessible, so no more events will arrive
+          lastFailure = new IOException(getSource().getParent() + " can no longer be watched");
+          watchService.close();
+          return;
+        }
+      }
+    } catch (final InterruptedException | ClosedWatchServiceException | IOException e) {
+      // closed
+    }
+  }
+
+  private boolean isRelevant(final WatchKey key) {
+    boolean relevant = false;
+    for (final WatchEvent<?> event : key.pollEvents()) {
+      relevant |= event.kind() == StandardWatchEventKinds.OVERFLOW
+          || getSource().getFileName().equals(event.context());
+    }
+    return relevant;
+  }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable open-addressing hash table of {@link String} keys and values. Lookups take no locks
+ * and, in the common case, touch only the parallel hash array and one key and value. Because it is
+ * never modified after construction, it can be safely shared between threads.
+ */
+final class StringTable {
+
+  private final int[] hashes;
+  private final String[] keys;
+  private final String[] values;
+  private final int size;
+
+  private StringTable(final Map<String, String> map) {
+    // keep the table at most half full
+    final int capacity = Integer.highestOneBit(Math.max(1, map.size()) * 2 - 1) << 1;
+    this.hashes = new int[capacity];
+    this.keys = new String[capacity];
+    this.values = new String[capacity];
+    int count = 0;
+    for (final Map.Entry<String, String> entry : map.entrySet()) {
+      if (entry.getKey() != null && entry.getValue() != null
+          && put(entry.getKey(), entry.getValue())) {
+        count++;
+      }
+    }
+    this.size = count;
+  }
+
+  /**
+   * Copy the given map. Entries with null keys or values are ignored.
+   */
+  static StringTable copyOf(final Map<String, String> map) {
+    return new StringTable(map);
+  }
+
+  /**
+   * Copy the given properties, including any defaults, as seen by
+   * {@link Properties#getProperty(String)}.
+   */
+  static StringTable copyOf(final Properties properties) {
+    final Map<String, String> map = new HashMap<>();
+    for (final String name : properties.stringPropertyNames()) {
+      map.put(name, properties.getProperty(name));
+    }
+    return new StringTable(map);
+  }
+
+  private static int spread(final int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  // only used during construction; returns true if the key was not already present
+  private boolean put(final String key, final String value) {
+    final int hash = key.hashCode();
+    final int mask = keys.length - 1;
+    int slot = spread(hash) & mask;
+    for (; keys[slot] != null; slot = (slot + 1) & mask) {
+      if (hashes[slot] == hash && keys[slot].equals(key)) {
+        values[slot] = value;
+        return false;
+      }
+    }
+    hashes[slot] = hash;
+    keys[slot] = key;
+    values[slot] = value;
+    return true;
+  }
+
+  String get(final String key) {
+    final int hash = key.hashCode();
+    final int mask = keys.length - 1;
+    for (int slot = spread(hash) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+      if (hashes[slot] == hash && keys[slot].equals(key)) {
+        return values[slot];
+      }
+    }
+    return null;
+  }
+
+  int size() {
+    return size;
+  }
+
+  void forEachEntry(final BiConsumer<String, String> action) {
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != null) {
+        action.accept(keys[slot], values[slot]);
+      }
+    }
+  }
+
+}
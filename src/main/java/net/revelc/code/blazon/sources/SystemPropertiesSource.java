@@ -0,0 +1,110 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import net.revelc.code.blazon.Source;
+
+/**
+ * A {@link Source} which serves values from a snapshot of the system properties, or of other
+ * {@link Properties}. Rather than synchronizing on the properties for every lookup, the string
+ * properties, including any defaults, are copied into an immutable table, which is replaced by
+ * {@link #refresh()}. Changes to the properties are not seen until the next refresh.
+ */
+public final class SystemPropertiesSource extends Source<Properties> {
+
+  private volatile StringTable table;
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * Take a snapshot of the system properties.
+   */
+  public SystemPropertiesSource() {
+    this(System.getProperties());
+  }
+
+  /**
+   * Take a snapshot of the given properties.
+   *
+   * @param properties the properties
+   */
+  public SystemPropertiesSource(final Properties properties) {
+    super(properties);
+    this.table = StringTable.copyOf(properties);
+  }
+
+  /**
+   * Take a new snapshot of the properties, so later lookups see any changes made since the last
+   * snapshot was taken. Refreshes are serialized, so a snapshot is never replaced by an older one.
+   */
+  public synchronized void refresh() {
+    table = StringTable.copyOf(getSource());
+    generation.incrementAndGet();
+  }
+
+  /**
+   * The generation increases with each {@link #refresh()}, whether or not the properties changed.
+   */
+  @Override
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  @Override
+  public String getValue(final String key) {
+    return table.get(key);
+  }
+
+  /**
+   * A system properties source is enumerable.
+   */
+  @Override
+  public boolean isEnumerable() {
+    return true;
+  }
+
+  /**
+   * Pass each property in the current snapshot to the action.
+   */
+  @Override
+  public void forEachEntry(final BiConsumer<String, String> action) {
+    table.forEachEntry(action);
+  }
+
+  /**
+   * Retrieve the values of many keys at once. All of the values come from the same snapshot, even
+   * if it is refreshed while they are being retrieved.
+   */
+  @Override
+  public Map<String, String> getValues(final Collection<String> keys) {
+    final StringTable snapshot = table;
+    final Map<String, String> found = new LinkedHashMap<>();
+    for (final String key : keys) {
+      final String value = snapshot.get(Preconditions.checkNotNull(key));
+      if (value != null) {
+        found.put(key, value);
+      }
+    }
+    return ImmutableMap.copyOf(found);
+  }
+
+}
@@ -23,17 +23,160 @@ import net.revelc.code.blazon.Type;
  * override {@link #checkPreconditions(Optional)} should remember to act upon
  * <code>super.checkPreconditions(raw)</code>, which could be absent.
  *
+ * <div>Rather than trimming a copy of the raw value, {@link #parse(CharSequence)} finds the bounds
+ * of the trimmed window and passes them to {@link #convert(CharSequence, int, int)}, so subclasses
+ * which override that method can parse the value in place, even from a {@link StringBuilder} or a
+ * view of a buffer. This is skipped for subclasses which override
+ * {@link #checkPreconditions(Optional)}, or which override {@link #convert(String)} without also
+ * overriding {@link #convert(CharSequence, int, int)}, so their methods are always applied.</div>
+ *
  * @see String#trim()
  */
 public abstract class AbstractTrimmedType<T> extends Type<T> {
 
+  // whether a subclass can be parsed from a trimmed window without changing its behavior
+  private static final ClassValue<Boolean> WINDOWED = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue(final Class<?> type) {
+      for (Class<?> c = type; c != AbstractTrimmedType.class; c = c.getSuperclass()) {
+        final boolean convertsStrings = declares(c, "convert", String.class);
+        final boolean convertsWindows =
+            declares(c, "convert", CharSequence.class, int.class, int.class);
+        if (declares(c, "checkPreconditions", Optional.class)
+            || (convertsStrings && !convertsWindows)) {
+          return false;
+        }
+        if (convertsWindows) {
+          return true;
+        }
+      }
+      return true;
+    }
+  };
+
+  private static boolean declares(final Class<?> type, final String name,
+      final Class<?>... parameterTypes) {
+    try {
+      type.getDeclaredMethod(name, parameterTypes);
+      return true;
+    } catch (final NoSuchMethodException e) {
+      return false;
+    }
+  }
+
   @Override
   protected Optional<String> checkPreconditions(final Optional<String> raw) {
-    String result = null;
-    if (raw.isPresent()) {
-      result = raw.get().trim();
+    if (!raw.isPresent()) {
+      return raw;
+    }
+    final String value = raw.get();
+    final int start = trimmedStart(value);
+    final int end = trimmedEnd(value, start);
+    if (start == end) {
+      return Optional.absent();
+    }
+    // only allocate when there is something to trim
+    return start == 0 && end == value.length() ? raw : Optional.of(value.substring(start, end));
+  }
+
+  /**
+   * Convert the trimmed window of the raw value to the appropriate type, without copying it. The
+   * default implementation copies the window to a {@link String} and calls
+   * {@link #convert(String)}. Subclasses should override both methods consistently.
+   *
+   * @param raw the raw value
+   * @param start the start of the trimmed window, inclusive
+   * @param end the end of the trimmed window, exclusive, which is greater than the start
+   * @return a non-null instance of {@link Optional}, either containing the converted value, or
+   *         absent, to signal that a default should be used in its place
+   */
+  protected Optional<T> convert(final CharSequence raw, final int start, final int end) {
+    return convert(raw.subSequence(start, end).toString());
+  }
+
+  @Override
+  public T parse(final CharSequence raw) {
+    if (raw == null || !WINDOWED.get(getClass())) {
+      return super.parse(raw);
+    }
+    final int start = trimmedStart(raw);
+    final int end = trimmedEnd(raw, start);
+    if (start == end) {
+      return null;
     }
-    return Optional.fromNullable((result == null || result.isEmpty()) ? null : result);
+    final Optional<T> converted = convert(raw, start, end);
+    if (!converted.isPresent()) {
+      return null;
+    }
+    return checkPostconditions(converted.get()).orNull();
+  }
+
+  /**
+   * Find the start of the trimmed window of the raw value, without copying it.
+   *
+   * @param raw the non-null raw value
+   * @return the index of the first character which would be kept by {@link String#trim()}, or the
+   *         length of the raw value if every character would be removed
+   */
+  protected static int trimmedStart(final CharSequence raw) {
+    return trimmedStart(raw, 0, raw.length());
+  }
+
+  /**
+   * Find the end of the trimmed window of the raw value, without copying it.
+   *
+   * @param raw the non-null raw value
+   * @param start the start of the trimmed window, from {@link #trimmedStart(CharSequence)}
+   * @return the index after the last character which would be kept by {@link String#trim()}
+   */
+  protected static int trimmedEnd(final CharSequence raw, final int start) {
+    return trimmedEnd(raw, start, raw.length());
+  }
+
+  /**
+   * Find the start of the trimmed window of a region of the raw value, without copying it.
+   *
+   * @param raw the non-null raw value
+   * @param start the start of the region, inclusive
+   * @param end the end of the region, exclusive
+   * @return the index of the first character in the region which would be kept by
+   *         {@link String#trim()}, or the end of the region if every character would be removed
+   */
+  protected static int trimmedStart(final CharSequence raw, final int start, final int end) {
+    int pos = start;
+    while (pos < end && raw.charAt(pos) <= ' ') {
+      pos++;
+    }
+    return pos;
+  }
+
+  /**
+   * Find the end of the trimmed window of a region of the raw value, without copying it.
+   *
+   * @param raw the non-null raw value
+   * @param start the start of the trimmed window, from
+   *        {@link #trimmedStart(CharSequence, int, int)}
+   * @param end the end of the region, exclusive
+   * @return the index after the last character in the region which would be kept by
+   *         {@link String#trim()}
+   */
+  protected static int trimmedEnd(final CharSequence raw, final int start, final int end) {
+    int pos = end;
+    while (pos > start && raw.charAt(pos - 1) <= ' ') {
+      pos--;
+    }
+    return pos;
+  }
+
+  /**
+   * Check whether the raw value would remain present after trimming.
+   *
+   * @param raw the raw value, which may be null
+   * @return true if the raw value contains any characters which would be kept by
+   *         {@link String#trim()}
+   */
+  public boolean isPresent(final CharSequence raw) {
+    return raw != null && trimmedStart(raw) < raw.length();
   }
 
 }
@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.types.numeric;
+
+import com.google.common.base.Optional;
+
+/**
+ * Canonical boxed values, and {@link Optional}s of them, for the integers from 0 to
+ * {@link #MAX_CACHED}, which covers every port number and most sizes and counts found in
+ * configuration. Parsing the same small value repeatedly, such as when taking new snapshots of
+ * the same configuration, returns the same instances instead of allocating new ones.
+ *
+ * <div>Each value is boxed the first time it is requested. The slots are filled without locking,
+ * so threads which request the same value for the first time at the same moment may briefly
+ * receive different, but equal, instances.</div>
+ */
+public final class BoxCache {
+
+  public static final int MAX_CACHED = 65535;
+
+  // the arrays are only allocated when their types are first used
+  private static final class Ints {
+    private static final Optional<?>[] VALUES = new Optional<?>[MAX_CACHED + 1];
+  }
+
+  private static final class Longs {
+    private static final Optional<?>[] VALUES = new Optional<?>[MAX_CACHED + 1];
+  }
+
+  private BoxCache() {}
+
+  /**
+   * The canonical {@link Optional} of the boxed value, if it is cached.
+   *
+   * @param value the value
+   * @return an {@link Optional} of the boxed value, which is shared if the value is cached
+   */
+  @SuppressWarnings("unchecked")
+  public static Optional<Integer> optionalOf(final int value) {
+    if (value < 0 || value > MAX_CACHED) {
+      return Optional.of(value);
+    }
+    Optional<Integer> boxed = (Optional<Integer>) Ints.VALUES[value];
+    if (boxed == null) {
+      boxed = Optional.of(Integer.valueOf(value));
+      Ints.VALUES[value] = boxed;
+    }
+    return boxed;
+  }
+
+  /**
+   * The canonical {@link Optional} of the boxed value, if it is cached.
+   *
+   * @param value the value
+   * @return an {@link Optional} of the boxed value, which is shared if the value is cached
+   */
+  @SuppressWarnings("unchecked")
+  public static Optional<Long> optionalOf(final long value) {
+    if (value < 0 || value > MAX_CACHED) {
+      return Optional.of(value);
+    }
+    Optional<Long> boxed = (Optional<Long>) Longs.VALUES[(int) value];
+    if (boxed == null) {
+      boxed = Optional.of(Long.valueOf(value));
+      Longs.VALUES[(int) value] = boxed;
+    }
+    return boxed;
+  }
+
+  /**
+   * Box the value, using the canonical instance if it is cached.
+   *
+   * @param value the value
+   * @return the boxed value
+   */
+  public static Integer valueOf(final int value) {
+    return optionalOf(value).get();
+  }
+
+  /**
+   * Box the value, using the canonical instance if it is cached.
+   *
+   * @param value the value
+   * @return the boxed value
+   */
+  public static Long valueOf(final long value) {
+    return optionalOf(value).get();
+  }
+
+}
@@ -14,7 +14,6 @@
 
 package net.revelc.code.blazon.types.numeric;
 
-import com.google.common.base.Optional;
 import com.google.common.collect.Range;
 
 /**
@@ -41,16 +40,8 @@ public class IntegerRangeType extends IntegerType {
    * @param upperBound the upper bound, inclusive
    */
   public IntegerRangeType(final int lowerBound, final int upperBound) {
+    super(10, lowerBound, upperBound);
     range = Range.<Integer>closed(lowerBound, upperBound);
   }
 
-  @Override
-  protected Optional<Integer> checkPostconditions(final Integer value) {
-    if (!range.contains(value)) {
-      throw new IllegalArgumentException(value + " is not in the range " + range.toString());
-    }
-    return Optional.of(value);
-  }
-
-
 }
@@ -15,45 +15,154 @@
 package net.revelc.code.blazon.types.numeric;
 
 import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import net.revelc.code.blazon.IntType;
 import net.revelc.code.blazon.types.AbstractTrimmedType;
 
 /**
  * An {@link AbstractTrimmedType} which converts the {@link String} to an {@link Integer}. If the
  * input is null, or the input contains only whitespace, the result is null. If a
- * {@link NumberFormatException} occurs, it will be thrown.
+ * {@link NumberFormatException} occurs, it will be thrown. Values can also be parsed to a primitive
+ * <code>int</code> with {@link #parseAsInt(CharSequence)}.
  */
-public class IntegerType extends AbstractTrimmedType<Integer> {
+public class IntegerType extends AbstractTrimmedType<Integer> implements IntType {
 
   public static final IntegerType BIN = new IntegerType(2);
   public static final IntegerType OCT = new IntegerType(8);
   public static final IntegerType DEC = new IntegerType(10);
   public static final IntegerType HEX = new IntegerType(16);
 
-  private final int radix;
+  private static final PrimitivePath.Checker EQUIVALENT =
+      new PrimitivePath.Checker(IntegerType.class);
+
+  private final RadixParser parser;
+  private final int lowerBound;
+  private final int upperBound;
 
   public IntegerType() {
     this(10);
   }
 
   public IntegerType(final int radix) {
-    this.radix = radix;
+    this(radix, Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Represents an integer which is parsed by the given parser, such as one which accepts
+   * underscores or radix prefixes.
+   *
+   * @param parser the parser
+   */
+  public IntegerType(final RadixParser parser) {
+    this(parser, Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Represents an integer which must be within the given bounds, which are checked while it is
+   * parsed.
+   *
+   * @param radix the radix of the integer
+   * @param lowerBound the lower bound, inclusive
+   * @param upperBound the upper bound, inclusive
+   * @throws IllegalArgumentException if the radix is not from 2 to 36, or the bounds are reversed
+   */
+  protected IntegerType(final int radix, final int lowerBound, final int upperBound) {
+    this(new RadixParser(radix), lowerBound, upperBound);
+  }
+
+  /**
+   * Represents an integer which is parsed by the given parser, and which must be within the given
+   * bounds, which are checked while it is parsed.
+   *
+   * @param parser the parser
+   * @param lowerBound the lower bound, inclusive
+   * @param upperBound the upper bound, inclusive
+   * @throws IllegalArgumentException if the bounds are reversed
+   */
+  protected IntegerType(final RadixParser parser, final int lowerBound, final int upperBound) {
+    Preconditions.checkArgument(lowerBound <= upperBound, "Invalid range: [%s\u2025%s]",
+        lowerBound, upperBound);
+    this.parser = Preconditions.checkNotNull(parser);
+    this.lowerBound = lowerBound;
+    this.upperBound = upperBound;
   }
 
   public int getRadix() {
-    return radix;
+    return parser.getRadix();
+  }
+
+  public RadixParser getParser() {
+    return parser;
   }
 
+  /**
+   * Get the lower bound of this type, inclusive, which is checked while values are parsed.
+   * Subclasses may override this to change the bound which is checked.
+   *
+   * @return the lower bound
+   */
   protected Integer getLowerBound() {
-    return Integer.MIN_VALUE;
+    return lowerBound;
   }
 
+  /**
+   * Get the upper bound of this type, inclusive, which is checked while values are parsed.
+   * Subclasses may override this to change the bound which is checked.
+   *
+   * @return the upper bound
+   */
   protected Integer getUpperBound() {
-    return Integer.MAX_VALUE;
+    return upperBound;
   }
 
   @Override
   protected Optional<Integer> convert(final String raw) {
-    return Optional.of(Integer.parseInt(raw, getRadix()));
+    return convert(raw, 0, raw.length());
+  }
+
+  @Override
+  protected Optional<Integer> convert(final CharSequence raw, final int start, final int end) {
+    return BoxCache.optionalOf(parser.parseInt(raw, start, end, getLowerBound(),
+        getUpperBound()));
+  }
+
+  @Override
+  public int parseAsInt(final CharSequence raw) {
+    return parseAsInt(raw, 0, raw.length());
+  }
+
+  /**
+   * Parse a region of the raw value, after trimming it, to a primitive <code>int</code>, without
+   * copying it, and check that it is within the bounds of this type.
+   *
+   * @param raw the non-null raw value
+   * @param start the start of the region, inclusive
+   * @param end the end of the region, exclusive
+   * @return the parsed value
+   * @throws NumberFormatException if the trimmed region is not a valid number
+   * @throws IllegalArgumentException if the value is out of bounds
+   */
+  public int parseAsInt(final CharSequence raw, final int start, final int end) {
+    final int trimmedStart = trimmedStart(raw, start, end);
+    return parser.parseInt(raw, trimmedStart, trimmedEnd(raw, trimmedStart, end),
+        getLowerBound(), getUpperBound());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <div>This is false for subclasses which override any of the hooks used by
+   * {@link #parse(String)}, because they are not called by
+   * {@link #parseAsInt(CharSequence)}.</div>
+   */
+  @Override
+  public boolean hasEquivalentPrimitivePath() {
+    return EQUIVALENT.get(getClass());
+  }
+
+  @Override
+  public boolean isPure() {
+    return true;
   }
 
   @Override
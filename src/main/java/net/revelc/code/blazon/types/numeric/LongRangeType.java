@@ -14,7 +14,6 @@
 
 package net.revelc.code.blazon.types.numeric;
 
-import com.google.common.base.Optional;
 import com.google.common.collect.Range;
 
 /**
@@ -41,15 +40,8 @@ public class LongRangeType extends LongType {
    * @param upperBound the upper bound, inclusive
    */
   public LongRangeType(final long lowerBound, final long upperBound) {
+    super(10, lowerBound, upperBound);
     range = Range.<Long>closed(lowerBound, upperBound);
   }
 
-  @Override
-  protected Optional<Long> checkPostconditions(final Long value) {
-    if (!range.contains(value)) {
-      throw new IllegalArgumentException(value + " is not in the range " + range.toString());
-    }
-    return Optional.of(value);
-  }
-
 }
@@ -0,0 +1,57 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.types.numeric;
+
+import java.lang.reflect.Method;
+
+/**
+ * Detects subclasses of {@link IntegerType} and {@link LongType} which override any of the hooks
+ * used by {@link net.revelc.code.blazon.Type#parse(String)}. The primitive parsing methods of
+ * those types do not call the hooks, so they are only equivalent to parsing a boxed value when no
+ * hook has been overridden.
+ */
+final class PrimitivePath {
+
+  private static final String[] HOOKS =
+      {"checkPreconditions", "convert", "checkPostconditions", "parse", "isPresent"};
+
+  private PrimitivePath() {}
+
+  /**
+   * Computes, for each concrete class, whether the hooks are those of its base type.
+   */
+  static final class Checker extends ClassValue<Boolean> {
+    private final Class<?> base;
+
+    Checker(final Class<?> base) {
+      this.base = base;
+    }
+
+    @Override
+    protected Boolean computeValue(final Class<?> type) {
+      for (Class<?> c = type; c != base; c = c.getSuperclass()) {
+        for (final Method method : c.getDeclaredMethods()) {
+          for (final String hook : HOOKS) {
+            if (!method.isSynthetic() && hook.equals(method.getName())) {
+              return false;
+            }
+          }
+        }
+      }
+      return true;
+    }
+  }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.types.numeric;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Parses integers in place from a window of a {@link CharSequence}, in any radix from 2 to 36. By
+ * default, the syntax is the same as {@link Integer#parseInt(String, int)} and
+ * {@link Long#parseLong(String, int)}: an optional sign, followed by one or more digits.
+ * Optionally, underscores may also separate digits, as in Java literals, and a <code>0x</code> or
+ * <code>0b</code> prefix may follow the sign, to select hexadecimal or binary instead of the
+ * parser's radix. Prefixes are only allowed for radixes up to 11, because in a larger radix, such
+ * as hexadecimal, <code>0b1</code> would be both a prefixed binary value and a value in the
+ * parser's radix.
+ *
+ * <div>Values are checked against their bounds by the same call which reads their digits, and
+ * overflow is detected as soon as it happens, without reading the rest of the digits. While
+ * parsing, a malformed value is signaled by a single preallocated error without a stack trace,
+ * which is only turned into a {@link NumberFormatException} at the public methods of this
+ * class.</div>
+ */
+public final class RadixParser {
+
+  public static final RadixParser BIN = new RadixParser(2);
+  public static final RadixParser OCT = new RadixParser(8);
+  public static final RadixParser DEC = new RadixParser(10);
+  public static final RadixParser HEX = new RadixParser(16);
+
+  /**
+   * The error result of parsing a malformed value, which is preallocated and has no stack trace,
+   * because it never leaves this class.
+   */
+  private static final class Malformed extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private Malformed() {
+      super(null, null, false, false);
+    }
+  }
+
+  private static final Malformed MALFORMED = new Malformed();
+
+  private final int radix;
+  private final boolean underscores;
+  private final boolean prefixes;
+
+  /**
+   * Create a parser for the given radix, without underscores or prefixes.
+   *
+   * @param radix the radix, from 2 to 36
+   * @throws IllegalArgumentException if the radix is out of range
+   */
+  public RadixParser(final int radix) {
+    this(radix, false, false);
+  }
+
+  /**
+   * Create a parser for the given radix.
+   *
+   * @param radix the radix, from 2 to 36
+   * @param underscores whether to allow underscores between digits
+   * @param prefixes whether to allow a <code>0x</code> or <code>0b</code> prefix, in either case,
+   *        which overrides the radix
+   * @throws IllegalArgumentException if the radix is out of range, or prefixes are allowed and
+   *         the radix is larger than 11, so <code>b</code> is a digit
+   */
+  public RadixParser(final int radix, final boolean underscores, final boolean prefixes) {
+    Preconditions.checkArgument(radix >= Character.MIN_RADIX && radix <= Character.MAX_RADIX,
+        "radix %s is not in the range [%s\u2025%s]", radix, Character.MIN_RADIX,
+        Character.MAX_RADIX);
+    Preconditions.checkArgument(!prefixes || Character.digit('b', radix) < 0,
+        "prefixes are ambiguous in radix %s, in which 'b' is a digit", radix);
+    this.radix = radix;
+    this.underscores = underscores;
+    this.prefixes = prefixes;
+  }
+
+  public int getRadix() {
+    return radix;
+  }
+
+  public boolean allowsUnderscores() {
+    return underscores;
+  }
+
+  public boolean allowsPrefixes() {
+    return prefixes;
+  }
+
+  /**
+   * Parse an <code>int</code> from a window of the input.
+   *
+   * @param s the input
+   * @param start the start of the window, inclusive
+   * @param end the end of the window, exclusive
+   * @param lowerBound the smallest value permitted
+   * @param upperBound the largest value permitted
+   * @return the value
+   * @throws NumberFormatException if the window does not contain an integer which fits in an
+   *         <code>int</code>
+   * @throws IllegalArgumentException if the value is not within the bounds
+   */
+  public int parseInt(final CharSequence s, final int start, final int end, final int lowerBound,
+      final int upperBound) {
+    final long value;
+    try {
+      value = parse(s, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    } catch (final Malformed e) {
+      throw forInputString(s, start, end);
+    }
+    return (int) checkBounds(value, lowerBound, upperBound);
+  }
+
+  /**
+   * Parse a <code>long</code> from a window of the input.
+   *
+   * @param s the input
+   * @param start the start of the window, inclusive
+   * @param end the end of the window, exclusive
+   * @param lowerBound the smallest value permitted
+   * @param upperBound the largest value permitted
+   * @return the value
+   * @throws NumberFormatException if the window does not contain an integer which fits in a
+   *         <code>long</code>
+   * @throws IllegalArgumentException if the value is not within the bounds
+   */
+  public long parseLong(final CharSequence s, final int start, final int end,
+      final long lowerBound, final long upperBound) {
+    final long value;
+    try {
+      value = parse(s, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+    } catch (final Malformed e) {
+      throw forInputString(s, start, end);
+    }
+    return checkBounds(value, lowerBound, upperBound);
+  }
+
+  private static long checkBounds(final long value, final long lowerBound, final long upperBound) {
+    if (value < lowerBound || value > upperBound) {
+      throw new IllegalArgumentException(
+          value + " is not in the range [" + lowerBound + '\u2025' + upperBound + "]");
+    }
+    return value;
+  }
+
+  // accumulates negatively, so the most negative value can be reached without overflowing
+  private long parse(final CharSequence s, final int start, final int end, final long minValue,
+      final long maxValue) {
+    int i = start;
+    if (i == end) {
+      throw MALFORMED;
+    }
+    boolean negative = false;
+    final char first = s.charAt(i);
+    if (first == '-' || first == '+') {
+      negative = first == '-';
+      i++;
+    }
+    int base = radix;
+    if (prefixes && end - i > 2 && s.charAt(i) == '0') {
+      final char prefix = s.charAt(i + 1);
+      if (prefix == 'x' || prefix == 'X') {
+        base = 16;
+        i += 2;
+      } else if (prefix == 'b' || prefix == 'B') {
+        base = 2;
+        i += 2;
+      }
+    }
+    if (i == end) {
+      throw MALFORMED;
+    }
+
+    final long limit = negative ? minValue : -maxValue;
+    final long multmin = limit / base;
+    long result = 0;
+    boolean afterDigit = false;
+    while (i < end) {
+      final char c = s.charAt(i++);
+      if (c == '_' && underscores && afterDigit) {
+        // an underscore must be between digits, so it can't be last
+        if (i == end) {
+          throw MALFORMED;
+        }
+        continue;
+      }
+      final int digit = Character.digit(c, base);
+      if (digit < 0 || result < multmin) {
+        throw MALFORMED;
+      }
+      result *= base;
+      if (result < limit + digit) {
+        throw MALFORMED;
+      }
+      result -= digit;
+      afterDigit = true;
+    }
+    return negative ? result : -result;
+  }
+
+  private static NumberFormatException forInputString(final CharSequence s, final int start,
+      final int end) {
+    return new NumberFormatException("For input string: \"" + s.subSequence(start, end) + "\"");
+  }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.types.strings;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Immutable tables for finding the constants of an enum by name, built once per enum class. There
+ * is one open-addressing table for exact names, and one for names with their case folded, as
+ * {@link String#equalsIgnoreCase(String)} would compare them. When several constants differ only
+ * by case, the folded table keeps the first one declared. Lookups work on a window of any
+ * {@link CharSequence}, take constant time, and don't allocate. A miss returns null, rather than
+ * throwing an exception as {@link Enum#valueOf(Class, String)} does.
+ */
+final class EnumLookup<E extends Enum<E>> {
+
+  private static final ClassValue<EnumLookup<?>> CACHE = new ClassValue<EnumLookup<?>>() {
+    @Override
+    protected EnumLookup<?> computeValue(final Class<?> type) {
+      return new EnumLookup<>(type);
+    }
+  };
+
+  private final String enumName;
+  private final ImmutableList<E> constants;
+  private final int[] exactHashes;
+  private final Object[] exactTable;
+  private final int[] foldedHashes;
+  private final Object[] foldedTable;
+
+  @SuppressWarnings("unchecked")
+  private EnumLookup(final Class<?> enumType) {
+    final Object[] constants = enumType.getEnumConstants();
+    Preconditions.checkArgument(constants != null, "Not an enum type: %s", enumType);
+    this.constants = ImmutableList.copyOf((E[]) constants);
+    this.enumName = enumType.getCanonicalName();
+
+    // keep the tables at most half full
+    final int capacity = Integer.highestOneBit(Math.max(1, constants.length) * 2 - 1) << 1;
+    this.exactHashes = new int[capacity];
+    this.exactTable = new Object[capacity];
+    this.foldedHashes = new int[capacity];
+    this.foldedTable = new Object[capacity];
+    for (final E constant : this.constants) {
+      final String name = constant.name();
+      insert(exactHashes, exactTable, hash(name, 0, name.length(), true), constant, true);
+      insert(foldedHashes, foldedTable, hash(name, 0, name.length(), false), constant, false);
+    }
+  }
+
+  /**
+   * Get the shared lookup tables for the given enum class, building them on first use.
+   */
+  @SuppressWarnings("unchecked")
+  static <E extends Enum<E>> EnumLookup<E> forType(final Class<E> enumType) {
+    return (EnumLookup<E>) CACHE.get(Preconditions.checkNotNull(enumType));
+  }
+
+  ImmutableList<E> getConstants() {
+    return constants;
+  }
+
+  /**
+   * Find the constant with the name in the given window. An exact match is preferred, but if there
+   * is none, and case-sensitive matching is not required, a match which ignores case is returned.
+   *
+   * @return the constant, or null if none matches
+   */
+  E find(final CharSequence raw, final int start, final int end, final boolean caseSensitive) {
+    final E exact = get(exactHashes, exactTable, raw, start, end, true);
+    if (exact != null || caseSensitive) {
+      return exact;
+    }
+    return get(foldedHashes, foldedTable, raw, start, end, false);
+  }
+
+  /**
+   * Create the exception thrown by {@link Enum#valueOf(Class, String)} when there is no match.
+   */
+  IllegalArgumentException noSuchConstant(final CharSequence raw) {
+    return new IllegalArgumentException("No enum constant " + enumName + "." + raw);
+  }
+
+  private static char fold(final char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+  private static int hash(final CharSequence s, final int start, final int end,
+      final boolean exact) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + (exact ? s.charAt(i) : fold(s.charAt(i)));
+    }
+    return hash ^ (hash >>> 16);
+  }
+
+  private static boolean matches(final String name, final CharSequence s, final int start,
+      final int end, final boolean exact) {
+    if (name.length() != end - start) {
+      return false;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      final char c1 = name.charAt(i);
+      final char c2 = s.charAt(start + i);
+      if (c1 != c2 && (exact || fold(c1) != fold(c2))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void insert(final int[] hashes, final Object[] table, final int hash,
+      final Enum<?> constant, final boolean exact) {
+    final String name = constant.name();
+    final int mask = table.length - 1;
+    int slot = hash & mask;
+    for (; table[slot] != null; slot = (slot + 1) & mask) {
+      if (hashes[slot] == hash
+          && matches(((Enum<?>) table[slot]).name(), name, 0, name.length(), exact)) {
+        // keep the first declared
+        return;
+      }
+    }
+    hashes[slot] = hash;
+    table[slot] = constant;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <E> E get(final int[] hashes, final Object[] table, final CharSequence s,
+      final int start, final int end, final boolean exact) {
+    final int hash = hash(s, start, end, exact);
+    final int mask = table.length - 1;
+    for (int slot = hash & mask; table[slot] != null; slot = (slot + 1) & mask) {
+      if (hashes[slot] == hash && matches(((Enum<?>) table[slot]).name(), s, start, end, exact)) {
+        return (E) table[slot];
+      }
+    }
+    return null;
+  }
+
+}
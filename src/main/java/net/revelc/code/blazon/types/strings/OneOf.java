@@ -27,10 +27,13 @@ import net.revelc.code.blazon.types.AbstractTrimmedType;
  * but if one cannot be found and case-sensitive search is set to false, the first case-insensitive
  * match will be returned without examining the remaining. This might be a problem when using enum
  * constants which differ only by case (allowed in Java, but not recommended).</div>
+ *
+ * <div>The constants are found using lookup tables built once for each enum class, so a search
+ * takes constant time, whether or not it is case-sensitive.</div>
  */
 public class OneOf<T extends Enum<T>> extends AbstractTrimmedType<T> {
 
-  private final Class<T> enumType;
+  private final EnumLookup<T> lookup;
   private final boolean caseSensitive;
 
   public OneOf(final Class<T> enumType) {
@@ -38,36 +41,43 @@ public class OneOf<T extends Enum<T>> extends AbstractTrimmedType<T> {
   }
 
   public OneOf(final Class<T> enumType, final boolean caseSensitive) {
-    this.enumType = Preconditions.checkNotNull(enumType);
+    this.lookup = EnumLookup.forType(Preconditions.checkNotNull(enumType));
     this.caseSensitive = caseSensitive;
   }
 
   @Override
   protected Optional<T> convert(final String raw) {
-    return Optional.<T>of(findEnum(enumType, caseSensitive, raw));
+    return convert(raw, 0, raw.length());
+  }
+
+  @Override
+  protected Optional<T> convert(final CharSequence raw, final int start, final int end) {
+    final T value = lookup.find(raw, start, end, caseSensitive);
+    if (value == null) {
+      throw lookup.noSuchConstant(raw.subSequence(start, end));
+    }
+    return Optional.<T>of(value);
   }
 
   protected static <E extends Enum<E>> E findEnum(final Class<E> enumType,
       final boolean caseSensitive, final String raw) {
-    try {
-      return Enum.valueOf(enumType, raw);
-    } catch (final IllegalArgumentException e) {
-      if (!caseSensitive) {
-        // case-insensitive search if we can't find it
-        for (final E t : enumType.getEnumConstants()) {
-          if (t.name().equalsIgnoreCase(raw)) {
-            return t;
-          }
-        }
-      }
-      throw e;
+    final EnumLookup<E> lookup = EnumLookup.forType(enumType);
+    final E value = lookup.find(raw, 0, raw.length(), caseSensitive);
+    if (value == null) {
+      throw lookup.noSuchConstant(raw);
     }
+    return value;
+  }
+
+  @Override
+  public boolean isPure() {
+    return true;
   }
 
   @Override
   public String description() {
     return "A case-" + (caseSensitive ? "" : "in") + "sensitive string matching one of { "
-        + Joiner.on(", ").join(enumType.getEnumConstants()) + " }";
+        + Joiner.on(", ").join(lookup.getConstants()) + " }";
   }
 
 }
@@ -45,6 +45,11 @@ public class StringType extends AbstractTrimmedType<String> {
     return Optional.of(normalized);
   }
 
+  @Override
+  protected Optional<String> convert(final CharSequence raw, final int start, final int end) {
+    return Optional.of(raw.subSequence(start, end).toString());
+  }
+
   @Override
   protected Optional<String> checkPostconditions(final String converted) {
     if (predicate.apply(converted)) {
@@ -54,6 +59,12 @@ public class StringType extends AbstractTrimmedType<String> {
         "The string '" + converted + "' does not match '" + predicateDescription + "'");
   }
 
+  @Override
+  public boolean isPure() {
+    // like any Guava Predicate, the predicate is expected to be free of side effects
+    return true;
+  }
+
   @Override
   public String description() {
     if (Predicates.alwaysTrue().equals(predicate)) {
@@ -17,8 +17,10 @@ package net.revelc.code.blazon.types.units;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import java.util.concurrent.TimeUnit;
+import net.revelc.code.blazon.types.numeric.BoxCache;
+import net.revelc.code.blazon.types.numeric.LongType;
 import net.revelc.code.blazon.types.units.Duration.Unit;
-import net.revelc.code.blazon.types.units.Quantity.Converter;
+import net.revelc.code.blazon.types.units.Quantity.LongConverter;
 
 /**
  * Specifies a non-negative base-10 integer quantity of time, followed by the units of time which
@@ -45,7 +47,7 @@ import net.revelc.code.blazon.types.units.Quantity.Converter;
 public class Duration extends QuantityType<Long, Unit> {
 
   /* This list of enums should be ordered according to increasing magnitudes. */
-  public static enum Unit implements Converter<Long, Unit> {
+  public static enum Unit implements LongConverter<Unit> {
 
     ns(TimeUnit.NANOSECONDS),
 
@@ -67,18 +69,32 @@ public class Duration extends QuantityType<Long, Unit> {
 
     @Override
     public Long convertTo(final Unit destinationUnit, final Long value) {
-      return convertTo(Preconditions.checkNotNull(destinationUnit).timeUnit,
-          Preconditions.checkNotNull(value));
+      return convertTo(destinationUnit, Preconditions.checkNotNull(value).longValue());
+    }
+
+    @Override
+    public long convertTo(final Unit destinationUnit, final long value) {
+      return convertTo(Preconditions.checkNotNull(destinationUnit).timeUnit, value);
     }
 
     public long convertTo(final TimeUnit destinationUnit, final long value) {
       return Preconditions.checkNotNull(destinationUnit).convert(value, timeUnit);
     }
 
+    public TimeUnit getTimeUnit() {
+      return timeUnit;
+    }
+
   }
 
   public static final Duration NON_NEGATIVE = new Duration();
 
+  // the canonical quantities of each unit from zero to SMALL - 1, filled in as they are parsed
+  private static final int SMALL = 1024;
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static final Quantity<Long, Unit>[][] SMALL_QUANTITIES =
+      new Quantity[Unit.values().length][SMALL];
+
   /**
    * Constructs a non-negative duration of time. Units are not case-sensitive.
    */
@@ -86,6 +102,39 @@ public class Duration extends QuantityType<Long, Unit> {
     super(Unit.s, false);
   }
 
+  /**
+   * Converts a duration to nanoseconds, without boxing. Like {@link TimeUnit#toNanos(long)},
+   * durations too long to represent saturate to {@link Long#MAX_VALUE}.
+   *
+   * @param duration the duration
+   * @return the duration in nanoseconds
+   */
+  public static long toNanos(final Quantity<Long, Unit> duration) {
+    return duration.longValue(Unit.ns);
+  }
+
+  /**
+   * Converts a duration to milliseconds, without boxing. Like {@link TimeUnit#toMillis(long)},
+   * durations too long to represent saturate to {@link Long#MAX_VALUE}, and any fraction of a
+   * millisecond is truncated.
+   *
+   * @param duration the duration
+   * @return the duration in milliseconds
+   */
+  public static long toMillis(final Quantity<Long, Unit> duration) {
+    return duration.longValue(Unit.ms);
+  }
+
+  /**
+   * Converts a duration to seconds, without boxing. Any fraction of a second is truncated.
+   *
+   * @param duration the duration
+   * @return the duration in seconds
+   */
+  public static long toSeconds(final Quantity<Long, Unit> duration) {
+    return duration.longValue(Unit.s);
+  }
+
   @Override
   protected Optional<Quantity<Long, Unit>> checkPostconditions(
       final Quantity<Long, Unit> converted) {
@@ -96,6 +145,11 @@ public class Duration extends QuantityType<Long, Unit> {
         "A duration of time cannot be negative (" + converted.getMagnitude() + ")");
   }
 
+  @Override
+  public boolean isPure() {
+    return true;
+  }
+
   @Override
   public String description() {
     return "A non-negative base-10 integer amount of time, "
@@ -105,7 +159,31 @@ public class Duration extends QuantityType<Long, Unit> {
 
   @Override
   public Long parseNumericalPart(final String number) {
-    return Long.parseLong(number);
+    return BoxCache.valueOf(Long.parseLong(number));
+  }
+
+  @Override
+  protected Long parseNumericalPart(final CharSequence raw, final int start, final int end) {
+    return BoxCache.valueOf(LongType.DEC.parseAsLong(raw, start, end));
+  }
+
+  /**
+   * Durations from zero to 1023 of each unit are kept in a table, so they are shared without
+   * interning; others are interned.
+   */
+  @Override
+  protected Quantity<Long, Unit> quantityOf(final Long magnitude, final Unit unit) {
+    final long value = magnitude;
+    if (value < 0 || value >= SMALL) {
+      return super.quantityOf(magnitude, unit);
+    }
+    final Quantity<Long, Unit>[] quantities = SMALL_QUANTITIES[unit.ordinal()];
+    Quantity<Long, Unit> quantity = quantities[(int) value];
+    if (quantity == null) {
+      quantity = new Quantity<>(magnitude, unit);
+      quantities[(int) value] = quantity;
+    }
+    return quantity;
   }
 
 }
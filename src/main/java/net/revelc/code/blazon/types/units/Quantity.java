@@ -30,6 +30,16 @@ public class Quantity<M extends Number & Comparable<M>, U extends Enum<U> & Conv
     N convertTo(V destinationUnit, N value);
   }
 
+  /**
+   * A {@link Converter} for units whose magnitudes are {@link Long}s, which can also convert
+   * primitive magnitudes, without boxing. Like {@link java.util.concurrent.TimeUnit#convert(long,
+   * java.util.concurrent.TimeUnit)}, conversions which would overflow saturate to
+   * {@link Long#MIN_VALUE} or {@link Long#MAX_VALUE}.
+   */
+  public static interface LongConverter<V extends Enum<V>> extends Converter<Long, V> {
+    long convertTo(V destinationUnit, long value);
+  }
+
   private final M magnitude;
   private final U unit;
 
@@ -48,7 +58,7 @@ public class Quantity<M extends Number & Comparable<M>, U extends Enum<U> & Conv
 
   @Override
   public int hashCode() {
-    return getMagnitude().hashCode();
+    return 31 * getMagnitude().hashCode() + getUnit().ordinal();
   }
 
   @Override
@@ -90,6 +100,10 @@ public class Quantity<M extends Number & Comparable<M>, U extends Enum<U> & Conv
 
     // if units are different, convert before comparing
     final U granularUnits = thisHasBiggerUnits ? getUnit() : other.getUnit();
+    if (getUnit() instanceof LongConverter) {
+      // the same saturated conversion as below, without the intermediate quantities
+      return Long.compare(longValue(granularUnits), other.longValue(granularUnits));
+    }
     return as(granularUnits).compareTo(other.as(granularUnits));
   }
 
@@ -98,6 +112,27 @@ public class Quantity<M extends Number & Comparable<M>, U extends Enum<U> & Conv
     return getMagnitude().toString() + getUnit().name();
   }
 
+  /**
+   * Converts the magnitude of this {@link Quantity} to the target unit, as a primitive
+   * <code>long</code>. If the units are {@link LongConverter}s, this neither boxes nor creates an
+   * intermediate {@link Quantity}, and conversions which would overflow saturate. Otherwise, it is
+   * equivalent to <code>as(targetUnit).getMagnitude().longValue()</code>.
+   *
+   * @param targetUnit the target unit
+   * @return the magnitude, converted to the target unit
+   */
+  public long longValue(final U targetUnit) {
+    if (getUnit() == Preconditions.checkNotNull(targetUnit)) {
+      return getMagnitude().longValue();
+    }
+    if (getUnit() instanceof LongConverter) {
+      @SuppressWarnings("unchecked")
+      final LongConverter<U> converter = (LongConverter<U>) getUnit();
+      return converter.convertTo(targetUnit, getMagnitude().longValue());
+    }
+    return getUnit().convertTo(targetUnit, getMagnitude()).longValue();
+  }
+
   /**
    * Presents this {@link Quantity} as an equivalent {@link Quantity} in the target unit. If the
    * target unit is the same as the current unit, the current object(this) is returned. Otherwise,
@@ -14,19 +14,20 @@
 
 package net.revelc.code.blazon.types.units;
 
-import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import net.revelc.code.blazon.types.AbstractTrimmedType;
-import net.revelc.code.blazon.types.strings.OneOf;
 import net.revelc.code.blazon.types.units.Quantity.Converter;
 
 /**
  * An {@link AbstractTrimmedType} which converts the {@link String} to a {@link Long}. If the input
  * is null, or the input contains only whitespace, the result is null. If a
  * {@link NumberFormatException} occurs, it will be thrown.
+ *
+ * <div>Parsed quantities are interned, so parsing equal quantities repeatedly returns the same
+ * instance, for as long as that instance is still referenced.</div>
  */
 /* @formatter:off */
 public abstract class QuantityType<M extends Number & Comparable<M>,
@@ -34,23 +35,16 @@ public abstract class QuantityType<M extends Number & Comparable<M>,
     extends AbstractTrimmedType<Quantity<M, U>> {
   /* @formatter:on */
 
+  private static final Interner<Quantity<?, ?>> INTERNER = Interners.newWeakInterner();
+
   private final U defaultUnit;
   private final boolean caseSensitive;
-
-  private static final class OneOfFriend extends OneOf<java.lang.annotation.ElementType> {
-    private OneOfFriend() {
-      super(java.lang.annotation.ElementType.class);
-    }
-
-    protected static <E extends Enum<E>> E findEnum(final Class<E> enumType,
-        final boolean caseSensitive, final String raw) {
-      return OneOf.findEnum(enumType, caseSensitive, raw);
-    }
-  }
+  private final UnitSuffixes<U> unitSuffixes;
 
   protected QuantityType(final U defaultUnit, final boolean caseSensitive) {
     this.defaultUnit = Preconditions.checkNotNull(defaultUnit);
     this.caseSensitive = caseSensitive;
+    this.unitSuffixes = UnitSuffixes.forUnits(defaultUnit.getDeclaringClass());
   }
 
   public U getDefaultUnit() {
@@ -63,27 +57,50 @@ public abstract class QuantityType<M extends Number & Comparable<M>,
 
   public abstract M parseNumericalPart(final String number);
 
+  /**
+   * Parse the numerical part of a quantity from a region of the raw value, which may be surrounded
+   * by whitespace. The default implementation copies the trimmed region to a {@link String} and
+   * calls {@link #parseNumericalPart(String)}. Subclasses may override this to parse it in place.
+   *
+   * @param raw the raw value
+   * @param start the start of the numerical part, inclusive
+   * @param end the end of the numerical part, exclusive
+   * @return the numerical part
+   */
+  protected M parseNumericalPart(final CharSequence raw, final int start, final int end) {
+    final int trimmedStart = trimmedStart(raw, start, end);
+    return parseNumericalPart(
+        raw.subSequence(trimmedStart, trimmedEnd(raw, trimmedStart, end)).toString());
+  }
+
   @Override
   protected Optional<Quantity<M, U>> convert(final String normalized) {
-    @SuppressWarnings("unchecked")
-    final Class<U> unitClass = (Class<U>) getDefaultUnit().getClass();
-
-    final Matcher matcher =
-        Pattern.compile("^(.*?)(" + Joiner.on('|').join(unitClass.getEnumConstants()) + ")?$",
-            Pattern.DOTALL | Pattern.CASE_INSENSITIVE).matcher(normalized);
-
-    if (!matcher.find()) {
-      throw new AssertionError(
-          "String does not match pattern '" + matcher.pattern().pattern() + "':\n" + normalized);
-    }
-    final String numberPart = matcher.group(1).trim();
-    final String unitPart = matcher.group(2);
+    return convert(normalized, 0, normalized.length());
+  }
 
-    final U unit = unitPart == null ? getDefaultUnit()
-        : OneOfFriend.findEnum(unitClass, getCaseSensitive(), unitPart);
-    final Quantity<M, U> quantity = new Quantity<M, U>(parseNumericalPart(numberPart), unit);
+  @Override
+  protected Optional<Quantity<M, U>> convert(final CharSequence raw, final int start,
+      final int end) {
+    // the longest suffix matching a unit name, ignoring case, is the unit part
+    final int unitStart = unitSuffixes.suffixStart(raw, start, end);
+
+    final U unit = unitStart == end ? getDefaultUnit()
+        : unitSuffixes.resolve(raw, unitStart, end, getCaseSensitive());
+    return Optional.of(quantityOf(parseNumericalPart(raw, start, unitStart), unit));
+  }
 
-    return Optional.of(quantity);
+  /**
+   * Create the canonical {@link Quantity} for a parsed magnitude and unit. By default, this interns
+   * the quantity in a weak interner shared by all quantity types. Subclasses may override this to
+   * look up common quantities without creating a new instance first.
+   *
+   * @param magnitude the parsed magnitude
+   * @param unit the parsed unit
+   * @return a quantity equal to one with the given magnitude and unit
+   */
+  @SuppressWarnings("unchecked")
+  protected Quantity<M, U> quantityOf(final M magnitude, final U unit) {
+    return (Quantity<M, U>) INTERNER.intern(new Quantity<M, U>(magnitude, unit));
   }
 
 }
@@ -0,0 +1,174 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.types.units;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable matcher for the unit suffix of a quantity, built once per unit enum class and shared
+ * by every {@link QuantityType} using that class. The unit names are stored in a trie keyed by
+ * their characters in reverse order, after folding ASCII case, so the longest unit suffix of an
+ * input can be found by walking backwards from its end, without compiling patterns or allocating.
+ */
+final class UnitSuffixes<U extends Enum<U>> {
+
+  private static final ClassValue<UnitSuffixes<?>> CACHE = new ClassValue<UnitSuffixes<?>>() {
+    @Override
+    protected UnitSuffixes<?> computeValue(final Class<?> type) {
+      return new UnitSuffixes<>(type.getEnumConstants());
+    }
+  };
+
+  private static final class Node {
+    private final char[] labels;
+    private final Node[] children;
+    // the units whose folded names end at this node, in declaration order
+    private final Enum<?>[] units;
+
+    private Node(final char[] labels, final Node[] children, final Enum<?>[] units) {
+      this.labels = labels;
+      this.children = children;
+      this.units = units;
+    }
+
+    private Node child(final char label) {
+      for (int i = 0; i < labels.length; i++) {
+        if (labels[i] == label) {
+          return children[i];
+        }
+      }
+      return null;
+    }
+  }
+
+  private static final class NodeBuilder {
+    private final Map<Character, NodeBuilder> children = new TreeMap<>();
+    private final List<Enum<?>> units = new ArrayList<>();
+
+    private Node build() {
+      final char[] labels = new char[children.size()];
+      final Node[] nodes = new Node[children.size()];
+      int i = 0;
+      for (final Map.Entry<Character, NodeBuilder> child : children.entrySet()) {
+        labels[i] = child.getKey();
+        nodes[i] = child.getValue().build();
+        i++;
+      }
+      return new Node(labels, nodes, units.toArray(new Enum<?>[units.size()]));
+    }
+  }
+
+  private final Class<?> unitClass;
+  private final Node root;
+
+  private UnitSuffixes(final Object[] constants) {
+    Preconditions.checkArgument(constants != null && constants.length > 0,
+        "Units must be an enum with at least one constant");
+    final NodeBuilder builder = new NodeBuilder();
+    for (final Object constant : constants) {
+      final Enum<?> unit = (Enum<?>) constant;
+      final String name = unit.name();
+      NodeBuilder node = builder;
+      for (int i = name.length() - 1; i >= 0; i--) {
+        node = node.children.computeIfAbsent(fold(name.charAt(i)), c -> new NodeBuilder());
+      }
+      node.units.add(unit);
+    }
+    this.unitClass = ((Enum<?>) constants[0]).getDeclaringClass();
+    this.root = builder.build();
+  }
+
+  /**
+   * Get the shared matcher for the given unit enum class, building it on first use.
+   */
+  @SuppressWarnings("unchecked")
+  static <U extends Enum<U>> UnitSuffixes<U> forUnits(final Class<U> unitClass) {
+    return (UnitSuffixes<U>) CACHE.get(Preconditions.checkNotNull(unitClass));
+  }
+
+  private static char fold(final char c) {
+    return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+  }
+
+  /**
+   * Find where the longest unit suffix of the input begins, ignoring case.
+   *
+   * @param input the text to search
+   * @param start the inclusive start of the text to search
+   * @param end the exclusive end of the text to search
+   * @return the index at which the longest unit suffix starts, or <code>end</code> if there is none
+   */
+  int suffixStart(final CharSequence input, final int start, final int end) {
+    int suffixStart = end;
+    Node node = root;
+    for (int i = end - 1; i >= start; i--) {
+      node = node.child(fold(input.charAt(i)));
+      if (node == null) {
+        break;
+      }
+      if (node.units.length > 0) {
+        suffixStart = i;
+      }
+    }
+    return suffixStart;
+  }
+
+  /**
+   * Resolve the unit named by the suffix found by {@link #suffixStart(CharSequence, int, int)}. An
+   * exact match is preferred. If there isn't one, and case-sensitive matching is not required, the
+   * first declared unit whose name matches without regard to case is returned.
+   *
+   * @throws IllegalArgumentException if case-sensitive matching is required and no unit has the
+   *         exact name
+   */
+  @SuppressWarnings("unchecked")
+  U resolve(final CharSequence input, final int start, final int end,
+      final boolean caseSensitive) {
+    Node node = root;
+    for (int i = end - 1; i >= start && node != null; i--) {
+      node = node.child(fold(input.charAt(i)));
+    }
+    Preconditions.checkArgument(node != null && node.units.length > 0, "No unit suffix at %s",
+        start);
+    for (final Enum<?> unit : node.units) {
+      if (regionEquals(unit.name(), input, start, end)) {
+        return (U) unit;
+      }
+    }
+    if (!caseSensitive) {
+      return (U) node.units[0];
+    }
+    throw new IllegalArgumentException("No enum constant " + unitClass.getCanonicalName() + "."
+        + input.subSequence(start, end));
+  }
+
+  private static boolean regionEquals(final String name, final CharSequence input, final int start,
+      final int end) {
+    if (name.length() != end - start) {
+      return false;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      if (name.charAt(i) != input.charAt(start + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.junit.Test;
+
+public class CachedFailureTest {
+
+  // has no public constructor which takes only a message
+  private static class CustomException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    CustomException(final String message, final int code) {
+      super(message + code);
+    }
+  }
+
+  @Test
+  public void testSameClass() {
+    final IllegalArgumentException cached = new IllegalArgumentException("bad value");
+    final CachedFailure failure = new CachedFailure(cached);
+    final RuntimeException first = failure.newException();
+    final RuntimeException second = failure.newException();
+    assertEquals(IllegalArgumentException.class, first.getClass());
+    assertEquals("bad value", first.getMessage());
+    assertSame(cached, first.getCause());
+    assertNotSame(first, second);
+    assertSame(cached, second.getCause());
+  }
+
+  @Test
+  public void testWrapped() {
+    final CustomException cached = new CustomException("bad value ", 7);
+    final RuntimeException thrown = new CachedFailure(cached).newException();
+    assertEquals(UncheckedExecutionException.class, thrown.getClass());
+    assertEquals("bad value 7", thrown.getMessage());
+    assertSame(cached, thrown.getCause());
+  }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Optional;
+import java.util.concurrent.TimeUnit;
+import net.revelc.code.blazon.types.network.Port;
+import net.revelc.code.blazon.types.numeric.IntegerType;
+import net.revelc.code.blazon.types.strings.OneOf;
+import net.revelc.code.blazon.types.strings.StringType;
+import net.revelc.code.blazon.types.units.Duration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class CachingTypeTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  @Test
+  public void testShippedTypesArePure() {
+    assertTrue(IntegerType.HEX.isPure());
+    assertTrue(Port.ANY.isPure());
+    assertTrue(new OneOf<>(TimeUnit.class).isPure());
+    assertTrue(new StringType().isPure());
+    assertTrue(Duration.NON_NEGATIVE.isPure());
+  }
+
+  @Test
+  public void testImpureType() {
+    final Type<String> impure = new Type<String>() {
+      @Override
+      protected Optional<String> convert(final String normalized) {
+        return Optional.of(normalized);
+      }
+
+      @Override
+      public String description() {
+        return "impure";
+      }
+    };
+    assertFalse(impure.isPure());
+    exception.expect(IllegalArgumentException.class);
+    CachingType.of(impure, 10);
+  }
+
+  @Test
+  public void testInvalidMaxEntries() {
+    exception.expect(IllegalArgumentException.class);
+    CachingType.of(Port.ANY, 0);
+  }
+
+  @Test
+  public void testHitsAndMisses() {
+    final CountingType<Integer> counting = CountingType.integers(true);
+    final CachingType<Integer> type = CachingType.of(counting, 10);
+    assertSame(counting, type.getType());
+    assertEquals("counting", type.description());
+
+    assertEquals(Integer.valueOf(8080), type.parse("8080"));
+    assertEquals(Integer.valueOf(8080), type.parse("8080"));
+    assertEquals(Integer.valueOf(9090), type.parse("9090"));
+    assertEquals(2, counting.getConversions());
+    assertEquals(1, type.stats().hitCount());
+    assertEquals(2, type.stats().missCount());
+
+    type.invalidateAll();
+    assertEquals(Integer.valueOf(8080), type.parse("8080"));
+    assertEquals(3, counting.getConversions());
+  }
+
+  @Test
+  public void testNormalizedValuesShareEntries() {
+    final CachingType<Integer> type = CachingType.of(Port.ANY, 10);
+    assertEquals(Integer.valueOf(8080), type.parse(" 8080"));
+    assertEquals(Integer.valueOf(8080), type.parse("8080 "));
+    assertEquals(1, type.stats().hitCount());
+    assertNull(type.parse("  "));
+    assertNull(type.parse(null));
+  }
+
+  @Test
+  public void testEviction() {
+    final CountingType<Integer> counting = CountingType.integers(true);
+    final CachingType<Integer> type = CachingType.of(counting, 2);
+    for (int i = 0; i < 5; i++) {
+      assertEquals(Integer.valueOf(i), type.parse(Integer.toString(i)));
+    }
+    assertEquals(3, type.stats().evictionCount());
+    assertEquals(5, counting.getConversions());
+  }
+
+  @Test
+  public void testFailuresAreCached() {
+    final CachingType<Integer> type = CachingType.of(Port.USER, 10);
+    IllegalArgumentException first = null;
+    for (int i = 0; i < 2; i++) {
+      try {
+        type.parse("80");
+        fail("expected an exception");
+      } catch (final IllegalArgumentException e) {
+        assertEquals(IllegalArgumentException.class, e.getClass());
+        if (first == null) {
+          first = e;
+        } else {
+          // a new exception each time, caused by the cached one
+          assertNotSame(first, e);
+          assertEquals(first.getMessage(), e.getMessage());
+          assertSame(first.getCause(), e.getCause());
+        }
+      }
+    }
+    assertEquals(1, type.stats().hitCount());
+  }
+
+}
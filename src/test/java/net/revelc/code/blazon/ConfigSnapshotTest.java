@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.revelc.code.blazon.sources.MapSource;
+import net.revelc.code.blazon.types.network.Port;
+import net.revelc.code.blazon.types.numeric.IntegerType;
+import net.revelc.code.blazon.types.strings.StringType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class ConfigSnapshotTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  private static final Key<Integer> PORT = new Key<>("server.port", Port.ANY);
+  private static final Key<String> NAME = new Key<>("server.name", new StringType(), "unnamed");
+  private static final Key<Integer> THREADS = new Key<>("server.threads", IntegerType.DEC);
+
+  @Test
+  public void testResolved() {
+    final Map<String, String> map = new HashMap<>();
+    map.put("server.port", "8080");
+    final ConfigSnapshot snapshot = new ConfigSnapshot(new MapSource(map), PORT, NAME, THREADS);
+
+    // the snapshot doesn't see later changes to the source
+    map.put("server.port", "9090");
+    assertEquals((Integer) 8080, snapshot.get(PORT));
+    assertEquals("unnamed", snapshot.get(NAME));
+    assertNull(snapshot.get(THREADS));
+    assertEquals(ImmutableList.of(PORT, NAME, THREADS), snapshot.getKeys());
+  }
+
+  @Test
+  public void testContains() {
+    final ConfigSnapshot snapshot = new ConfigSnapshot(new MapSource(new HashMap<>()), NAME, NAME);
+    assertTrue(snapshot.contains(NAME));
+    assertFalse(snapshot.contains(PORT));
+    assertFalse(snapshot.contains(new Key<>("server.name", new StringType())));
+    assertEquals(1, snapshot.getKeys().size());
+  }
+
+  @Test
+  public void testMissingKey() {
+    final ConfigSnapshot snapshot = new ConfigSnapshot(new MapSource(new HashMap<>()), NAME);
+    exception.expect(IllegalArgumentException.class);
+    snapshot.get(PORT);
+  }
+
+  @Test
+  public void testEmpty() {
+    final ConfigSnapshot snapshot = new ConfigSnapshot(new MapSource(new HashMap<>()));
+    assertFalse(snapshot.contains(PORT));
+    assertTrue(snapshot.getKeys().isEmpty());
+  }
+
+  @Test
+  public void testInvalid() {
+    final Map<String, String> map = new HashMap<>();
+    map.put("server.port", "80000");
+    exception.expect(IllegalArgumentException.class);
+    new ConfigSnapshot(new MapSource(map), PORT);
+  }
+
+  @Test
+  public void testKeysCreatedFarApart() {
+    final Key<Integer> early = new Key<>("early", Port.ANY);
+    final List<Key<Integer>> between = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      between.add(new Key<>("between." + i, Port.ANY));
+    }
+    final Key<Integer> late = new Key<>("late", Port.ANY);
+    final Map<String, String> map = new HashMap<>();
+    map.put("early", "80");
+    map.put("late", "8080");
+    final ConfigSnapshot snapshot = new ConfigSnapshot(new MapSource(map), late, early);
+    assertEquals((Integer) 80, snapshot.get(early));
+    assertEquals((Integer) 8080, snapshot.get(late));
+    for (final Key<Integer> key : between) {
+      assertFalse(snapshot.contains(key));
+    }
+  }
+
+}
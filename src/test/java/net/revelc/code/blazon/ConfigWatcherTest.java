@@ -0,0 +1,197 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import net.revelc.code.blazon.sources.MapSource;
+import net.revelc.code.blazon.sources.SystemPropertiesSource;
+import net.revelc.code.blazon.types.network.Port;
+import net.revelc.code.blazon.types.strings.StringType;
+import org.junit.Test;
+
+public class ConfigWatcherTest {
+
+  private static final Key<Integer> PORT = new Key<>("server.port", Port.ANY);
+  private static final Key<String> NAME = new Key<>("server.name", new StringType(), "unnamed");
+
+  // runs tasks only when asked to
+  private static class QueuedExecutor implements Executor {
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    @Override
+    public void execute(final Runnable task) {
+      tasks.add(task);
+    }
+
+    private int runAll() {
+      int count = 0;
+      Runnable task;
+      while ((task = tasks.poll()) != null) {
+        task.run();
+        count++;
+      }
+      return count;
+    }
+  }
+
+  @Test
+  public void testNotifiedOnlyOnChange() {
+    final Map<String, String> map = new HashMap<>();
+    map.put("server.port", "8080");
+    final ConfigWatcher watcher = new ConfigWatcher(new MapSource(map), Runnable::run);
+    final List<Integer> ports = new ArrayList<>();
+    final List<String> names = new ArrayList<>();
+    assertEquals((Integer) 8080, watcher.watch(PORT, ports::add));
+    assertEquals("unnamed", watcher.watch(NAME, names::add));
+
+    assertEquals(0, watcher.refresh());
+    // the raw value changed, but the parsed value did not
+    map.put("server.port", " 8080 ");
+    assertEquals(0, watcher.refresh());
+    map.put("server.port", "9090");
+    map.put("server.name", "  ");
+    assertEquals(1, watcher.refresh());
+    map.put("server.name", "main");
+    assertEquals(1, watcher.refresh());
+
+    assertEquals(ImmutableList.of(9090), ports);
+    assertEquals(ImmutableList.of("main"), names);
+  }
+
+  @Test
+  public void testCoalesced() {
+    final Map<String, String> map = new HashMap<>();
+    map.put("server.port", "1");
+    final QueuedExecutor executor = new QueuedExecutor();
+    final ConfigWatcher watcher = new ConfigWatcher(new MapSource(map), executor);
+    final List<Integer> ports = new ArrayList<>();
+    watcher.watch(PORT, ports::add);
+
+    for (int i = 2; i <= 10; i++) {
+      map.put("server.port", Integer.toString(i));
+      assertEquals(1, watcher.refresh());
+    }
+    assertEquals(1, executor.runAll());
+    assertEquals(ImmutableList.of(10), ports);
+
+    // changed and changed back before the notification ran
+    map.put("server.port", "11");
+    watcher.refresh();
+    map.put("server.port", "10");
+    watcher.refresh();
+    assertEquals(1, executor.runAll());
+    assertEquals(ImmutableList.of(10), ports);
+  }
+
+  @Test
+  public void testRejectedNotification() {
+    final Map<String, String> map = new HashMap<>();
+    map.put("server.port", "1");
+    final boolean[] reject = {true};
+    final ConfigWatcher watcher = new ConfigWatcher(new MapSource(map), task -> {
+      if (reject[0]) {
+        throw new RejectedExecutionException("shutting down");
+      }
+      task.run();
+    });
+    final List<Integer> ports = new ArrayList<>();
+    watcher.watch(PORT, ports::add);
+    map.put("server.port", "2");
+    try {
+      watcher.refresh();
+      fail("expected an exception");
+    } catch (final RejectedExecutionException e) {
+      // expected
+    }
+    reject[0] = false;
+    map.put("server.port", "3");
+    assertEquals(1, watcher.refresh());
+    assertEquals(ImmutableList.of(3), ports);
+  }
+
+  @Test
+  public void testUnwatch() {
+    final Map<String, String> map = new HashMap<>();
+    final ConfigWatcher watcher = new ConfigWatcher(new MapSource(map), Runnable::run);
+    final List<Integer> ports = new ArrayList<>();
+    final Consumer<Integer> listener = ports::add;
+    watcher.watch(PORT, listener);
+    assertTrue(watcher.unwatch(PORT, listener));
+    assertFalse(watcher.unwatch(PORT, listener));
+    map.put("server.port", "80");
+    assertEquals(0, watcher.refresh());
+    assertTrue(ports.isEmpty());
+  }
+
+  @Test
+  public void testInvalidValueKeepsPrevious() {
+    final Map<String, String> map = new HashMap<>();
+    map.put("server.port", "80");
+    final ConfigWatcher watcher = new ConfigWatcher(new MapSource(map), Runnable::run);
+    final List<Integer> ports = new ArrayList<>();
+    final List<String> names = new ArrayList<>();
+    watcher.watch(PORT, ports::add);
+    watcher.watch(NAME, names::add);
+
+    map.put("server.port", "123456");
+    map.put("server.name", "main");
+    try {
+      watcher.refresh();
+      fail("expected an exception");
+    } catch (final IllegalArgumentException e) {
+      // expected
+    }
+    assertTrue(ports.isEmpty());
+    assertEquals(ImmutableList.of("main"), names);
+
+    map.put("server.port", "81");
+    assertEquals(1, watcher.refresh());
+    assertEquals(ImmutableList.of(81), ports);
+  }
+
+  @Test
+  public void testUnchangedGeneration() {
+    final Properties props = new Properties();
+    props.setProperty("server.port", "80");
+    final SystemPropertiesSource source = new SystemPropertiesSource(props);
+    final ConfigWatcher watcher = new ConfigWatcher(source, Runnable::run);
+    final List<Integer> ports = new ArrayList<>();
+    watcher.watch(PORT, ports::add);
+
+    props.setProperty("server.port", "81");
+    // the snapshot wasn't refreshed, so its generation is unchanged
+    assertEquals(0, watcher.refresh());
+    source.refresh();
+    assertEquals(1, watcher.refresh());
+    assertEquals(0, watcher.refresh());
+    assertEquals(ImmutableList.of(81), ports);
+  }
+
+}
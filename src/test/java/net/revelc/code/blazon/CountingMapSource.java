@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import net.revelc.code.blazon.sources.MapSource;
+
+/**
+ * A {@link MapSource} for tests, which counts how many times it is read.
+ */
+public final class CountingMapSource extends MapSource {
+
+  private int lookups = 0;
+  private int batches = 0;
+  private int scans = 0;
+
+  /**
+   * Serve values from the given map.
+   *
+   * @param source the map
+   */
+  public CountingMapSource(final Map<?, ?> source) {
+    super(source);
+  }
+
+  /**
+   * Get the number of single values looked up so far.
+   *
+   * @return the number of calls to {@link #getValue(String)}
+   */
+  public int getLookups() {
+    return lookups;
+  }
+
+  /**
+   * Get the number of batches of values looked up so far.
+   *
+   * @return the number of calls to {@link #getValues(Collection)}
+   */
+  public int getBatches() {
+    return batches;
+  }
+
+  /**
+   * Get the number of scans of all the entries so far.
+   *
+   * @return the number of calls to {@link #forEachEntry(BiConsumer)}
+   */
+  public int getScans() {
+    return scans;
+  }
+
+  @Override
+  public String getValue(final String key) {
+    lookups++;
+    return super.getValue(key);
+  }
+
+  @Override
+  public Map<String, String> getValues(final Collection<String> keys) {
+    batches++;
+    return super.getValues(keys);
+  }
+
+  @Override
+  public void forEachEntry(final BiConsumer<String, String> action) {
+    scans++;
+    super.forEachEntry(action);
+  }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Type} for tests, which counts how many times it converts a value.
+ */
+public final class CountingType<T> extends Type<T> {
+
+  private final Function<String, T> conversion;
+  private final boolean pure;
+  private final AtomicInteger conversions = new AtomicInteger();
+
+  private CountingType(final Function<String, T> conversion, final boolean pure) {
+    this.conversion = conversion;
+    this.pure = pure;
+  }
+
+  /**
+   * Create a type which returns each value as it is.
+   *
+   * @return the type
+   */
+  public static CountingType<String> strings() {
+    return new CountingType<>(value -> value, false);
+  }
+
+  /**
+   * Create a type which parses each value as a decimal integer.
+   *
+   * @param pure whether the type reports itself as pure
+   * @return the type
+   */
+  public static CountingType<Integer> integers(final boolean pure) {
+    return new CountingType<>(value -> Integer.parseInt(value.trim()), pure);
+  }
+
+  /**
+   * Get the number of values converted so far.
+   *
+   * @return the number of conversions
+   */
+  public int getConversions() {
+    return conversions.get();
+  }
+
+  @Override
+  protected Optional<T> convert(final String normalized) {
+    conversions.incrementAndGet();
+    return Optional.of(conversion.apply(normalized));
+  }
+
+  @Override
+  public boolean isPure() {
+    return pure;
+  }
+
+  @Override
+  public String description() {
+    return "counting";
+  }
+
+}
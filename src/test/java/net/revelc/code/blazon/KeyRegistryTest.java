@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.collect.ImmutableList;
+import net.revelc.code.blazon.types.network.Port;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class KeyRegistryTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  private static final Key<Integer> A = new Key<>("a", Port.ANY);
+  private static final Key<Integer> B = new Key<>("b", Port.USER);
+
+  // places both keys by linear probing, with a single bucket whose displacement is the seed
+  private static int[] probedTable(final int seed) {
+    final int[] slots = {-1, -1, -1, -1};
+    int slot = KeyRegistry.hash("a", seed) & 3;
+    slots[slot] = 0;
+    slot = KeyRegistry.hash("b", seed) & 3;
+    while (slots[slot] >= 0) {
+      slot = (slot + 1) & 3;
+    }
+    slots[slot] = 1;
+    return slots;
+  }
+
+  @Test
+  public void testLookup() {
+    final KeyRegistry registry = new KeyRegistry(ImmutableList.of(A, B), new int[] {7},
+        probedTable(7));
+    assertEquals(2, registry.size());
+    assertSame(A, registry.get("a"));
+    assertSame(B, registry.get("b"));
+    assertEquals(-1, registry.indexOf("c"));
+    assertEquals(Port.ANY.description(), registry.getDescription(0));
+    assertSame(registry.getDescription(0), registry.getDescription(0));
+    assertEquals(Port.USER.description(), registry.getDescription(1));
+  }
+
+  @Test
+  public void testTableTooSmall() {
+    exception.expect(IllegalArgumentException.class);
+    new KeyRegistry(ImmutableList.of(A, B), new int[] {0}, new int[] {0, 1});
+  }
+
+  @Test
+  public void testInvalidIndex() {
+    exception.expect(IndexOutOfBoundsException.class);
+    new KeyRegistry(ImmutableList.of(A, B), new int[] {0}, probedTable(0)).getDescription(2);
+  }
+
+}
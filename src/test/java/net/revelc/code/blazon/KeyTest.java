@@ -17,11 +17,71 @@ package net.revelc.code.blazon;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import net.revelc.code.blazon.sources.MapSource;
+import net.revelc.code.blazon.sources.SystemPropertiesSource;
+import net.revelc.code.blazon.types.network.Port;
 import net.revelc.code.blazon.types.numeric.IntegerType;
+import net.revelc.code.blazon.types.numeric.LongType;
+import net.revelc.code.blazon.types.strings.StringType;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 public class KeyTest {
 
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  private static final MapSource source = new MapSource(
+      ImmutableMap.of("port", " 8080 ", "size", "4294967296", "blank", "  ", "text", "abc"));
+
+  @Test
+  public void testCachedForVersionedSources() {
+    final CountingType<String> type = CountingType.strings();
+    final Key<String> k = new Key<>("text", type);
+    for (int i = 0; i < 3; i++) {
+      assertEquals("abc", k.getValue(source));
+    }
+    assertEquals(1, type.getConversions());
+
+    // a different source is never served from the cache
+    final MapSource other = new MapSource(ImmutableMap.of("text", "xyz"));
+    assertEquals("xyz", k.getValue(other));
+    assertEquals("abc", k.getValue(source));
+    assertEquals(3, type.getConversions());
+
+    final Properties props = new Properties();
+    props.setProperty("text", "one");
+    final SystemPropertiesSource snapshot = new SystemPropertiesSource(props);
+    assertEquals("one", k.getValue(snapshot));
+    props.setProperty("text", "two");
+    assertEquals("one", k.getValue(snapshot));
+    snapshot.refresh();
+    assertEquals("two", k.getValue(snapshot));
+    assertEquals("two", k.getValue(snapshot));
+    assertEquals(5, type.getConversions());
+  }
+
+  @Test
+  public void testNotCachedForUnversionedSources() {
+    final Map<String, String> map = new HashMap<>();
+    map.put("text", "abc");
+    final MapSource mutable = new MapSource(map);
+    assertEquals(Source.UNVERSIONED, mutable.getGeneration());
+    final CountingType<String> type = CountingType.strings();
+    final Key<String> k = new Key<>("text", type);
+    assertEquals("abc", k.getValue(mutable));
+    map.put("text", "def");
+    assertEquals("def", k.getValue(mutable));
+    assertEquals("def", k.getValue(mutable));
+    assertEquals(3, type.getConversions());
+  }
+
   @Test
   public void testKey() {
     final Key<Integer> k = new Key<>("my.key.first", IntegerType.HEX);
@@ -49,4 +109,78 @@ public class KeyTest {
     assertEquals((Integer) 42, k2.getDefaultValue());
   }
 
+  @Test
+  public void testGetInt() {
+    assertEquals(8080, new Key<>("port", Port.ANY).getInt(source));
+    assertEquals(8080, new Key<>("port", IntegerType.DEC, 42).getInt(source));
+    assertEquals(42, new Key<>("blank", IntegerType.DEC, 42).getInt(source));
+    assertEquals(42, new Key<>("missing", IntegerType.DEC, 42).getInt(source));
+    assertEquals(8080L, new Key<>("port", Port.USER).getLong(source));
+  }
+
+  @Test
+  public void testGetLong() {
+    assertEquals(4294967296L, new Key<>("size", LongType.DEC).getLong(source));
+    assertEquals(42L, new Key<>("missing", LongType.DEC, 42L).getLong(source));
+  }
+
+  @Test
+  public void testGetIntWithOverriddenHook() {
+    final IntegerType doubled = new IntegerType() {
+      @Override
+      protected Optional<Integer> checkPostconditions(final Integer value) {
+        return Optional.of(value * 2);
+      }
+    };
+    final LongType negated = new LongType() {
+      @Override
+      protected Optional<Long> checkPostconditions(final Long value) {
+        return Optional.of(-value);
+      }
+    };
+    assertEquals(16160, new Key<>("port", doubled).getInt(source));
+    assertEquals(16160L, new Key<>("port", doubled).getLong(source));
+    assertEquals(-4294967296L, new Key<>("size", negated).getLong(source));
+  }
+
+  @Test
+  public void testGetIntWithOverriddenParseRawValue() {
+    final Map<String, String> map = new HashMap<>();
+    map.put("port", "8080");
+    final MapSource mutable = new MapSource(map);
+    final Key<Integer> k = new Key<Integer>("port", IntegerType.DEC) {
+      @Override
+      protected Integer parseRawValue(final String value, final Integer defaultValue) {
+        return super.parseRawValue(value, defaultValue) + 1;
+      }
+    };
+    assertEquals(8081, k.getInt(mutable));
+    assertEquals(8081L, k.getLong(mutable));
+    assertEquals(8081, k.getInt(source));
+  }
+
+  @Test
+  public void testGetIntTooLarge() {
+    exception.expect(ArithmeticException.class);
+    new Key<>("size", LongType.DEC).getInt(source);
+  }
+
+  @Test
+  public void testGetIntOutOfRange() {
+    exception.expect(IllegalArgumentException.class);
+    new Key<>("port", Port.SYSTEM).getInt(source);
+  }
+
+  @Test
+  public void testGetIntAbsentWithoutDefault() {
+    exception.expect(IllegalStateException.class);
+    new Key<>("blank", IntegerType.DEC).getInt(source);
+  }
+
+  @Test
+  public void testGetIntNotANumber() {
+    exception.expect(ClassCastException.class);
+    new Key<>("text", new StringType()).getInt(source);
+  }
+
 }
@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import net.revelc.code.blazon.sources.MapSource;
+import net.revelc.code.blazon.types.network.Port;
+import net.revelc.code.blazon.types.numeric.IntegerType;
+import net.revelc.code.blazon.types.strings.StringType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class KeysTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  @Test
+  public void testResolveAll() {
+    final Map<String, String> map = new HashMap<>();
+    map.put("server.port", " 8080 ");
+    map.put("server.threads", "16");
+    final CountingMapSource source = new CountingMapSource(map);
+
+    final Key<Integer> port = new Key<>("server.port", Port.ANY);
+    final Key<String> name = new Key<>("server.name", new StringType(), "unnamed");
+    final Key<Integer> threads = new Key<>("server.threads", IntegerType.DEC);
+    final Key<Integer> queue = new Key<>("server.queue", IntegerType.DEC);
+    final ConfigSnapshot snapshot = Keys.resolveAll(source, port, name, threads, queue);
+
+    assertEquals(1, source.getBatches());
+    assertEquals(4, source.getLookups());
+    assertEquals((Integer) 8080, snapshot.get(port));
+    assertEquals("unnamed", snapshot.get(name));
+    assertEquals((Integer) 16, snapshot.get(threads));
+    assertNull(snapshot.get(queue));
+  }
+
+  @Test
+  public void testGetValues() {
+    final Map<String, String> map = new HashMap<>();
+    map.put("a", "1");
+    map.put("b", "2");
+    final Map<String, String> values =
+        new MapSource(map).getValues(ImmutableList.of("b", "c", "a", "b"));
+    assertEquals(ImmutableList.of("b", "a"), ImmutableList.copyOf(values.keySet()));
+    assertEquals("1", values.get("a"));
+    assertEquals("2", values.get("b"));
+  }
+
+  @Test
+  public void testResolveAllInParallel() {
+    final Map<String, String> map = new HashMap<>();
+    final List<Key<Integer>> keys = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      map.put("key" + i, Integer.toHexString(i));
+      keys.add(new Key<>("key" + i, IntegerType.HEX));
+    }
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final ConfigSnapshot snapshot = Keys.resolveAll(new MapSource(map), pool, keys);
+      for (int i = 0; i < 1000; i++) {
+        assertEquals((Integer) i, snapshot.get(keys.get(i)));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testResolveAllInParallelFailure() {
+    final Map<String, String> map = new HashMap<>();
+    final List<Key<Integer>> keys = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      map.put("port" + i, Integer.toString(i * 1000));
+      keys.add(new Key<>("port" + i, Port.ANY));
+    }
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      exception.expect(IllegalArgumentException.class);
+      Keys.resolveAll(new MapSource(map), pool, keys);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+}
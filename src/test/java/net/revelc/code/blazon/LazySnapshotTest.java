@@ -0,0 +1,145 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.revelc.code.blazon.sources.MapSource;
+import net.revelc.code.blazon.types.network.Port;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class LazySnapshotTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  private final CountingType<Integer> counting = CountingType.integers(false);
+  private final Key<Integer> port = new Key<>("server.port", counting);
+  private final Key<Integer> threads = new Key<>("threads", counting);
+  private final Key<Integer> invalid = new Key<>("invalid", counting);
+  private final Key<Integer> unset = new Key<>("unset", Port.ANY);
+  private final MapSource source = new MapSource(
+      ImmutableMap.of("server.port", "8080", "threads", "4", "invalid", "four", "unset", " "));
+
+  @Test
+  public void testParsesOnFirstRead() {
+    final LazySnapshot view = new LazySnapshot(source, port, threads, invalid, unset);
+    assertEquals(0, counting.getConversions());
+    assertEquals(ImmutableList.of(port, threads, invalid, unset), view.getUnreadKeys());
+
+    assertEquals((Integer) 8080, view.get(port));
+    assertEquals((Integer) 8080, view.get(port));
+    assertEquals(1, counting.getConversions());
+    assertTrue(view.isRead(port));
+    assertFalse(view.isRead(threads));
+
+    assertNull(view.get(unset));
+    assertNull(view.get(unset));
+    assertEquals(ImmutableList.of(threads, invalid), view.getUnreadKeys());
+  }
+
+  @Test
+  public void testFailuresAreCached() {
+    final LazySnapshot view = new LazySnapshot(source, port, invalid);
+    RuntimeException first = null;
+    for (int i = 0; i < 3; i++) {
+      try {
+        view.get(invalid);
+        fail("expected an exception");
+      } catch (final NumberFormatException e) {
+        assertEquals(NumberFormatException.class, e.getClass());
+        if (first == null) {
+          first = e;
+        } else {
+          // a new exception each time, caused by the cached one
+          assertNotSame(first, e);
+          assertEquals(first.getMessage(), e.getMessage());
+          assertSame(first.getCause(), e.getCause());
+        }
+      }
+    }
+    assertEquals(1, counting.getConversions());
+    assertTrue(view.isRead(invalid));
+    assertEquals(ImmutableList.of(port), view.getUnreadKeys());
+  }
+
+  @Test
+  public void testRequired() {
+    final LazySnapshot view = new LazySnapshot(source, port, unset);
+    assertEquals((Integer) 8080, view.getRequired(port));
+    exception.expect(IllegalStateException.class);
+    view.getRequired(unset);
+  }
+
+  @Test
+  public void testKeyNotInView() {
+    final LazySnapshot view = new LazySnapshot(source, port);
+    assertTrue(view.contains(port));
+    assertFalse(view.contains(threads));
+    assertFalse(view.isRead(threads));
+    exception.expect(IllegalArgumentException.class);
+    view.get(threads);
+  }
+
+  @Test
+  public void testConcurrentReads() throws Exception {
+    final Key<Object> shared = new Key<>("server.port", new Type<Object>() {
+      @Override
+      protected Optional<Object> convert(final String normalized) {
+        // a new instance for each parse, so the published one can be told apart
+        return Optional.of(new Object());
+      }
+
+      @Override
+      public String description() {
+        return "object";
+      }
+    });
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      for (int round = 0; round < 20; round++) {
+        final LazySnapshot view = new LazySnapshot(source, shared);
+        final List<Future<Object>> reads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+          reads.add(executor.submit((Callable<Object>) () -> view.get(shared)));
+        }
+        final Object published = view.get(shared);
+        for (final Future<Object> read : reads) {
+          assertSame(published, read.get());
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+}
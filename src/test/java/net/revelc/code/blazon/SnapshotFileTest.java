@@ -0,0 +1,186 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.revelc.code.blazon.sources.MapSource;
+import net.revelc.code.blazon.types.network.Port;
+import net.revelc.code.blazon.types.numeric.LongType;
+import net.revelc.code.blazon.types.strings.OneOf;
+import net.revelc.code.blazon.types.strings.StringType;
+import net.revelc.code.blazon.types.units.Duration;
+import net.revelc.code.blazon.types.units.Quantity;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class SnapshotFileTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final CountingType<String> counting = CountingType.strings();
+  private final Key<Integer> port = new Key<>("server.port", Port.ANY);
+  private final Key<Long> size = new Key<>("cache.size", LongType.DEC);
+  private final Key<String> name = new Key<>("server.name", counting);
+  private final Key<String> alias = new Key<>("server.alias", new StringType());
+  private final Key<TimeUnit> unit = new Key<>("time.unit", new OneOf<>(TimeUnit.class));
+  private final Key<Quantity<Long, Duration.Unit>> timeout =
+      new Key<>("server.timeout", Duration.NON_NEGATIVE);
+  private final Key<Integer> missing = new Key<>("server.threads", Port.ANY);
+
+  private final Map<String, String> raw = new HashMap<>();
+  private Path file;
+
+  @Before
+  public void setUp() {
+    raw.put("server.port", "8080");
+    raw.put("cache.size", "5000000000");
+    raw.put("server.name", "main");
+    raw.put("server.alias", "main");
+    raw.put("time.unit", "SECONDS");
+    raw.put("server.timeout", "30s");
+    file = folder.getRoot().toPath().resolve("config.bin");
+  }
+
+  private ConfigSnapshot load() {
+    return SnapshotFile.load(file, new MapSource(ImmutableMap.copyOf(raw)), port, size, name,
+        alias, unit, timeout, missing);
+  }
+
+  private void assertValues(final ConfigSnapshot snapshot) {
+    assertEquals((Integer) 8080, snapshot.get(port));
+    assertEquals((Long) 5000000000L, snapshot.get(size));
+    assertEquals("main", snapshot.get(name));
+    assertEquals("main", snapshot.get(alias));
+    assertSame(TimeUnit.SECONDS, snapshot.get(unit));
+    assertEquals(Duration.NON_NEGATIVE.parse("30s"), snapshot.get(timeout));
+    assertNull(snapshot.get(missing));
+  }
+
+  @Test
+  public void testRoundTrip() {
+    assertFalse(Files.exists(file));
+    assertValues(load());
+    assertTrue(Files.exists(file));
+    assertEquals(1, counting.getConversions());
+
+    final ConfigSnapshot loaded = load();
+    assertValues(loaded);
+    // nothing was parsed, and equal strings share one instance
+    assertEquals(1, counting.getConversions());
+    assertSame(loaded.get(name), loaded.get(alias));
+    assertEquals(port, loaded.getKeys().get(0));
+  }
+
+  @Test
+  public void testChangedRawValue() {
+    load();
+    raw.put("server.name", "backup");
+    assertEquals("backup", load().get(name));
+    assertEquals(2, counting.getConversions());
+    raw.put("server.threads", "10");
+    assertEquals((Integer) 10, load().get(missing));
+    assertEquals(3, counting.getConversions());
+  }
+
+  @Test
+  public void testChangedSchema() {
+    load();
+    final Key<Integer> withDefault = new Key<>("server.threads", Port.ANY, 4);
+    final MapSource source = new MapSource(ImmutableMap.copyOf(raw));
+    assertEquals((Integer) 4,
+        SnapshotFile.load(file, source, port, size, name, alias, unit, timeout, withDefault)
+            .get(withDefault));
+    assertEquals(2, counting.getConversions());
+    final ConfigSnapshot fewer = SnapshotFile.load(file, source, port, name);
+    assertEquals((Integer) 8080, fewer.get(port));
+    assertEquals(3, counting.getConversions());
+    assertFalse(fewer.contains(size));
+  }
+
+  @Test
+  public void testCorruptFile() throws IOException {
+    load();
+    final byte[] bytes = Files.readAllBytes(file);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(file, bytes);
+    assertValues(load());
+    assertEquals(2, counting.getConversions());
+    // the file was rewritten
+    assertValues(load());
+    assertEquals(2, counting.getConversions());
+
+    Files.write(file, new byte[] {1, 2, 3});
+    assertValues(load());
+    assertEquals(3, counting.getConversions());
+  }
+
+  @Test
+  public void testWrite() throws IOException {
+    final MapSource source = new MapSource(ImmutableMap.copyOf(raw));
+    final ConfigSnapshot snapshot = new ConfigSnapshot(source, port, name);
+    SnapshotFile.write(file, source, snapshot);
+    final byte[] written = Files.readAllBytes(file);
+    assertEquals(1, counting.getConversions());
+    assertEquals("main", SnapshotFile.load(file, source, port, name).get(name));
+    assertEquals(1, counting.getConversions());
+    assertArrayEquals(written, Files.readAllBytes(file));
+  }
+
+  @Test
+  public void testUnsupportedValue() throws IOException {
+    final Key<List<String>> list = new Key<>("list", new Type<List<String>>() {
+      @Override
+      protected Optional<List<String>> convert(final String normalized) {
+        return Optional.of(Arrays.asList(normalized.split(",")));
+      }
+
+      @Override
+      public String description() {
+        return "list";
+      }
+    });
+    final MapSource source = new MapSource(ImmutableMap.of("list", "a,b"));
+    // the snapshot is still resolved, but no file is written
+    assertEquals(2, SnapshotFile.load(file, source, list).get(list).size());
+    assertFalse(Files.exists(file));
+
+    exception.expect(IllegalArgumentException.class);
+    SnapshotFile.write(file, source, new ConfigSnapshot(source, list));
+  }
+
+}
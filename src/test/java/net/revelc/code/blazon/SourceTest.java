@@ -0,0 +1,105 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import net.revelc.code.blazon.sources.EnvironmentSource;
+import net.revelc.code.blazon.types.network.Port;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class SourceTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  private static final ImmutableMap<String, String> BACKENDS =
+      ImmutableMap.<String, String>builder().put("backend.a.host", "a.example.com")
+          .put("backend.a.port", "8080").put("backend.b.host", "b.example.com")
+          .put("backend.b.port", "8081").put("backend.bb.host", "bb.example.com")
+          .put("backends", "a,b,bb").put("server.port", "80").build();
+
+  @Test
+  public void testKeys() {
+    final CountingMapSource source = new CountingMapSource(BACKENDS);
+    assertTrue(source.isEnumerable());
+    assertEquals(ImmutableList.of("backend.a.host", "backend.a.port", "backend.b.host",
+        "backend.b.port", "backend.bb.host", "backends", "server.port"), source.keys());
+    source.keys();
+    // the source is immutable, so it was only indexed once
+    assertEquals(1, source.getScans());
+  }
+
+  @Test
+  public void testSubset() {
+    final CountingMapSource source = new CountingMapSource(BACKENDS);
+    final Source<Source<?>> b = source.subset("backend.b.");
+    assertEquals(ImmutableList.of("host", "port"), b.keys());
+    assertEquals("b.example.com", b.getValue("host"));
+    assertNull(b.getValue("backend.b.host"));
+    assertEquals(ImmutableMap.of("port", "8081"),
+        b.getValues(ImmutableList.of("port", "missing")));
+    assertEquals((Integer) 8081, new Key<>("port", Port.ANY).getValue(b));
+    assertTrue(b.isImmutable());
+    assertTrue(b.isEnumerable());
+
+    final Map<String, String> entries = new TreeMap<>();
+    source.subset("backend.").subset("a.").forEachEntry(entries::put);
+    assertEquals(ImmutableMap.of("host", "a.example.com", "port", "8080"), entries);
+    assertEquals(ImmutableList.of(".host", ".port", "b.host"), source.subset("backend.b").keys());
+    assertEquals(ImmutableList.of(), source.subset("client.").keys());
+    assertEquals(source.keys(), source.subset("").keys());
+    assertEquals(1, source.getScans());
+  }
+
+  @Test
+  public void testMutableSourceIsScannedEachTime() {
+    final Map<String, String> map = new HashMap<>(BACKENDS);
+    final CountingMapSource source = new CountingMapSource(map);
+    final Source<Source<?>> c = source.subset("backend.c.");
+    assertEquals(ImmutableList.of(), c.keys());
+    map.put("backend.c.port", "8082");
+    map.put("backend.c.host", "c.example.com");
+    assertEquals(ImmutableList.of("host", "port"), c.keys());
+    final Map<String, String> entries = new TreeMap<>();
+    c.forEachEntry(entries::put);
+    assertEquals(ImmutableMap.of("host", "c.example.com", "port", "8082"), entries);
+    assertEquals(ImmutableList.copyOf(new TreeMap<>(map).keySet()), source.keys());
+    assertEquals(4, source.getScans());
+  }
+
+  @Test
+  public void testNotEnumerable() {
+    final EnvironmentSource source =
+        new EnvironmentSource(ImmutableMap.of("SERVER_PORT", "80"), key -> key);
+    assertFalse(source.isEnumerable());
+    final Source<Source<?>> subset = source.subset("SERVER_");
+    assertEquals("80", subset.getValue("PORT"));
+    assertFalse(subset.isEnumerable());
+    exception.expect(UnsupportedOperationException.class);
+    subset.keys();
+  }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import net.revelc.code.blazon.metrics.Metrics;
+import net.revelc.code.blazon.sources.MapSource;
+import net.revelc.code.blazon.types.network.Port;
+import net.revelc.code.blazon.types.strings.OneOf;
+import org.junit.Test;
+
+public class ValidatorTest {
+
+  @Test
+  public void testCollectsEveryFailure() {
+    final Key<Integer> port = new Key<>("server.port", Port.USER);
+    final Key<Integer> adminPort = new Key<>("admin.port", Port.ANY);
+    final Key<TimeUnit> unit = new Key<>("time.unit", new OneOf<>(TimeUnit.class));
+    final Key<Integer> threads = new Key<>("threads", Port.ANY, 4);
+    final Validator validator = new Validator(ImmutableList.of(port, adminPort, unit, threads));
+    final ValidationReport report = validator.validate(new MapSource(ImmutableMap.of("server.port",
+        "80", "admin.port", "9090", "time.unit", "FORTNIGHTS")));
+
+    assertEquals(4, report.getKeyCount());
+    assertEquals(2, report.getFailures().size());
+    final ValidationReport.Failure first = report.getFailures().get(0);
+    assertSame(port, first.getKey());
+    assertEquals("80", first.getRawValue());
+    assertEquals(Port.USER.description(), first.getDescription());
+    assertTrue(first.getCause() instanceof IllegalArgumentException);
+    final ValidationReport.Failure second = report.getFailures().get(1);
+    assertSame(unit, second.getKey());
+    assertEquals("FORTNIGHTS", second.getRawValue());
+    assertTrue(report.toString().startsWith("2 of 4 keys are invalid\n  server.port = <hidden>: "
+        + IllegalArgumentException.class.getName() + " Expected: "));
+    assertFalse(report.toString().contains("FORTNIGHTS"));
+
+    assertTrue(validator
+        .validate(new MapSource(ImmutableMap.of("server.port", "8080", "time.unit", "SECONDS")))
+        .isValid());
+  }
+
+  @Test
+  public void testNotRecordedInMetrics() {
+    final Key<Integer> port = new Key<>("validator.port", Port.USER);
+    final Key<Integer> threads = new Key<>("validator.threads", Port.ANY, 4);
+    final Key<Integer> custom = new Key<Integer>("validator.custom", Port.ANY) {
+      @Override
+      protected Integer parseRawValue(final String value, final Integer defaultValue) {
+        return super.parseRawValue(value, 7);
+      }
+    };
+    Metrics.reset();
+    Metrics.enable();
+    try {
+      final ValidationReport report = new Validator(ImmutableList.of(port, threads, custom))
+          .validate(new MapSource(ImmutableMap.of("validator.port", "80")));
+      assertEquals(1, report.getFailures().size());
+      // a key which overrides parseRawValue is still parsed with it
+      assertTrue(new Validator(ImmutableList.of(custom)).validate(new MapSource(ImmutableMap.of()))
+          .isValid());
+      assertFalse(Metrics.snapshotKeys().containsKey("validator.port"));
+      assertFalse(Metrics.snapshotKeys().containsKey("validator.threads"));
+    } finally {
+      Metrics.disable();
+      Metrics.reset();
+    }
+  }
+
+  @Test
+  public void testParallel() {
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final List<Key<?>> keys = new ArrayList<>();
+      final Map<String, String> raw = new HashMap<>();
+      for (int i = 0; i < 1000; i++) {
+        final Key<Integer> key = new Key<>("backend." + i + ".port", Port.ANY);
+        keys.add(key);
+        keys.add(key);
+        raw.put(key.getKey(), i % 100 == 0 ? "port" + i : Integer.toString(1024 + i));
+      }
+      final Validator validator = new Validator(pool, keys);
+      assertEquals(1000, validator.getKeys().size());
+      final ValidationReport report = validator.validate(new MapSource(raw));
+      assertEquals(1000, report.getKeyCount());
+      assertEquals(10, report.getFailures().size());
+      for (int i = 0; i < 10; i++) {
+        final ValidationReport.Failure failure = report.getFailures().get(i);
+        assertEquals("backend." + (i * 100) + ".port", failure.getKey().getKey());
+        assertEquals("port" + (i * 100), failure.getRawValue());
+        assertTrue(failure.getCause() instanceof NumberFormatException);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testUnsetValue() {
+    final Key<Integer> required = new Key<Integer>("required", Port.ANY) {
+      @Override
+      protected Integer parseRawValue(final String value, final Integer defaultValue) {
+        if (value == null) {
+          throw new IllegalStateException("required is unset");
+        }
+        return super.parseRawValue(value, defaultValue);
+      }
+    };
+    final ValidationReport report =
+        new Validator(ImmutableList.of(required)).validate(new MapSource(ImmutableMap.of()));
+    assertNull(report.getFailures().get(0).getRawValue());
+    assertTrue(report.getFailures().get(0).toString().startsWith("required = <unset>: "));
+  }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class LatencyHistogramTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  @Test
+  public void testBuckets() {
+    assertEquals(0, LatencyHistogram.bucketOf(-5));
+    assertEquals(0, LatencyHistogram.bucketOf(0));
+    assertEquals(1, LatencyHistogram.bucketOf(1));
+    assertEquals(2, LatencyHistogram.bucketOf(2));
+    assertEquals(2, LatencyHistogram.bucketOf(3));
+    assertEquals(11, LatencyHistogram.bucketOf(1024));
+    assertEquals(63, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    assertEquals(0, LatencyHistogram.upperBoundOf(0));
+    assertEquals(3, LatencyHistogram.upperBoundOf(2));
+    assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(63));
+    for (int i = 1; i < 63; i++) {
+      assertEquals(i, LatencyHistogram.bucketOf(LatencyHistogram.upperBoundOf(i)));
+      assertEquals(i + 1, LatencyHistogram.bucketOf(LatencyHistogram.upperBoundOf(i) + 1));
+    }
+  }
+
+  @Test
+  public void testRecordAndReset() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(1);
+    histogram.record(3);
+    histogram.record(2);
+    long[] counts = histogram.getCounts();
+    assertEquals(LatencyHistogram.BUCKETS, counts.length);
+    assertEquals(1, counts[1]);
+    assertEquals(2, counts[2]);
+    histogram.reset();
+    counts = histogram.getCounts();
+    assertEquals(0, counts[1] + counts[2]);
+  }
+
+  @Test
+  public void testInvalidBucket() {
+    exception.expect(IndexOutOfBoundsException.class);
+    LatencyHistogram.upperBoundOf(LatencyHistogram.BUCKETS);
+  }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableMap;
+import net.revelc.code.blazon.Key;
+import net.revelc.code.blazon.sources.MapSource;
+import net.revelc.code.blazon.types.network.Port;
+import net.revelc.code.blazon.types.numeric.LongType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsTest {
+
+  private final MapSource source =
+      new MapSource(ImmutableMap.of("metrics.port", "8080", "metrics.bad", "123456"));
+
+  @Before
+  public void enable() {
+    Metrics.reset();
+    Metrics.enable();
+  }
+
+  @After
+  public void disable() {
+    Metrics.disable();
+    Metrics.reset();
+  }
+
+  @Test
+  public void testDisabled() {
+    Metrics.disable();
+    assertFalse(Metrics.isEnabled());
+    new Key<>("metrics.port", Port.ANY).getValue(source);
+    assertFalse(Metrics.snapshotKeys().containsKey("metrics.port"));
+  }
+
+  @Test
+  public void testReadsFallbacksAndFailures() {
+    assertTrue(Metrics.isEnabled());
+    final Key<Integer> port = new Key<>("metrics.port", Port.ANY);
+    final Key<Integer> missing = new Key<>("metrics.missing", Port.ANY, 80);
+    final Key<Integer> bad = new Key<>("metrics.bad", Port.ANY);
+    assertEquals((Integer) 8080, port.getValue(source));
+    assertEquals(8080, port.getInt(source));
+    assertEquals(80, missing.getInt(source));
+    assertEquals((Integer) 80, missing.getValue(source));
+    try {
+      bad.getValue(source);
+      fail("expected an exception");
+    } catch (final IllegalArgumentException e) {
+      // expected
+    }
+
+    final ParseMetrics.Snapshot portMetrics = Metrics.snapshotKeys().get("metrics.port");
+    assertEquals(2, portMetrics.getReads());
+    assertEquals(0, portMetrics.getFallbacks());
+    assertEquals(0, portMetrics.getFailures());
+    long recorded = 0;
+    for (final long count : portMetrics.getHistogram()) {
+      recorded += count;
+    }
+    assertEquals(2, recorded);
+
+    final ParseMetrics.Snapshot missingMetrics = Metrics.snapshotKeys().get("metrics.missing");
+    assertEquals(2, missingMetrics.getReads());
+    // the source is immutable, so the second read was served from the cache
+    assertEquals(1, missingMetrics.getFallbacks());
+
+    assertEquals(1, Metrics.snapshotKeys().get("metrics.bad").getFailures());
+
+    final ParseMetrics.Snapshot typeMetrics = Metrics.snapshotTypes().get(Port.class.getName());
+    assertEquals(5, typeMetrics.getReads());
+    assertEquals(1, typeMetrics.getFallbacks());
+    assertEquals(1, typeMetrics.getFailures());
+  }
+
+  @Test
+  public void testCacheHits() {
+    final Key<Integer> port = new Key<>("metrics.port", Port.ANY);
+    final Key<Integer> missing = new Key<>("metrics.missing", Port.ANY, 80);
+    for (int i = 0; i < 3; i++) {
+      assertEquals((Integer) 8080, port.getValue(source));
+      assertEquals((Integer) 80, missing.getValue(source));
+    }
+    assertEquals(3, Metrics.snapshotKeys().get("metrics.port").getReads());
+    final ParseMetrics.Snapshot missingMetrics = Metrics.snapshotKeys().get("metrics.missing");
+    assertEquals(3, missingMetrics.getReads());
+    // only the first read parsed the value and fell back to the default
+    assertEquals(1, missingMetrics.getFallbacks());
+  }
+
+  @Test
+  public void testLongs() {
+    final Key<Long> size = new Key<>("metrics.size", LongType.DEC, 42L);
+    assertEquals(42L, size.getLong(source));
+    final ParseMetrics.Snapshot metrics = Metrics.snapshotKeys().get("metrics.size");
+    assertEquals(1, metrics.getReads());
+    assertEquals(1, metrics.getFallbacks());
+  }
+
+  @Test
+  public void testSharedByName() {
+    assertSame(Metrics.forKey("metrics.port"), Metrics.forKey("metrics.port"));
+    assertSame(Metrics.forType(Port.class), Metrics.forType(Port.class));
+    new Key<>("metrics.port", Port.ANY).getValue(source);
+    new Key<>("metrics.port", Port.USER).getValue(source);
+    assertEquals(2, Metrics.snapshotKeys().get("metrics.port").getReads());
+  }
+
+  @Test
+  public void testReset() {
+    new Key<>("metrics.port", Port.ANY).getValue(source);
+    Metrics.reset();
+    assertFalse(Metrics.snapshotKeys().containsKey("metrics.port"));
+    assertTrue(Metrics.isEnabled());
+  }
+
+  @Test
+  public void testPercentiles() {
+    final ParseMetrics metrics = new ParseMetrics("test");
+    for (int i = 0; i < 99; i++) {
+      metrics.recordRead(100, false);
+    }
+    metrics.recordRead(5000, true);
+    final ParseMetrics.Snapshot snapshot = metrics.snapshot();
+    assertEquals(127, snapshot.getPercentileNanos(50));
+    assertEquals(127, snapshot.getPercentileNanos(99));
+    assertEquals(8191, snapshot.getPercentileNanos(100));
+    assertEquals(149.0, snapshot.getMeanNanos(), 0.0);
+    assertEquals(1, snapshot.getFailures());
+    assertEquals(0, new ParseMetrics("empty").snapshot().getPercentileNanos(50));
+  }
+
+}
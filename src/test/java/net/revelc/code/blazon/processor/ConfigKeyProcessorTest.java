@@ -0,0 +1,246 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import net.revelc.code.blazon.ConfigKey;
+import net.revelc.code.blazon.ConfigSnapshot;
+import net.revelc.code.blazon.Key;
+import net.revelc.code.blazon.KeyRegistry;
+import net.revelc.code.blazon.Keys;
+import net.revelc.code.blazon.sources.MapSource;
+import net.revelc.code.blazon.types.network.Port;
+import net.revelc.code.blazon.types.numeric.LongType;
+import net.revelc.code.blazon.types.strings.OneOf;
+import net.revelc.code.blazon.types.strings.StringType;
+import net.revelc.code.blazon.types.units.Duration;
+import net.revelc.code.blazon.types.units.Duration.Unit;
+import net.revelc.code.blazon.types.units.Quantity;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class ConfigKeyProcessorTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  public static final class Types {
+    public static final OneOf<TimeUnit> TIME_UNIT = new OneOf<>(TimeUnit.class);
+
+    private Types() {}
+  }
+
+  interface ServerConfig {
+    @ConfigKey(value = "server.port", type = Port.class, field = "ANY")
+    int port();
+
+    @ConfigKey(value = "server.name", type = StringType.class, defaultValue = "main")
+    String name();
+
+    @ConfigKey(value = "server.timeout", type = Duration.class, field = "NON_NEGATIVE")
+    Quantity<Long, Unit> timeout();
+
+    @ConfigKey(value = "server.timeUnit", type = Types.class, field = "TIME_UNIT")
+    TimeUnit timeUnit();
+
+    @ConfigKey(value = "server.maxSize", type = LongType.class, field = "DEC",
+        defaultValue = "4096")
+    long maxSize();
+
+    default boolean hasTimeout() {
+      return timeout() != null;
+    }
+  }
+
+  @Test
+  public void testGenerated() {
+    final ServerConfig config = ConfigKeyProcessorTest_ServerConfig_Blazon.load(new MapSource(
+        ImmutableMap.of("server.port", "8080", "server.timeUnit", "SECONDS", "server.maxSize",
+            "1024")));
+    assertEquals(8080, config.port());
+    assertEquals("main", config.name());
+    assertNull(config.timeout());
+    assertFalse(config.hasTimeout());
+    assertEquals(TimeUnit.SECONDS, config.timeUnit());
+    assertEquals(1024L, config.maxSize());
+    assertEquals("ServerConfig{server.port, server.name, server.timeout, server.timeUnit, "
+        + "server.maxSize}", config.toString());
+
+    assertEquals(Arrays.asList(ConfigKeyProcessorTest_ServerConfig_Blazon.PORT,
+        ConfigKeyProcessorTest_ServerConfig_Blazon.NAME,
+        ConfigKeyProcessorTest_ServerConfig_Blazon.TIMEOUT,
+        ConfigKeyProcessorTest_ServerConfig_Blazon.TIME_UNIT,
+        ConfigKeyProcessorTest_ServerConfig_Blazon.MAX_SIZE),
+        ConfigKeyProcessorTest_ServerConfig_Blazon.KEYS);
+    assertEquals("server.maxSize", ConfigKeyProcessorTest_ServerConfig_Blazon.MAX_SIZE.getKey());
+  }
+
+  @Test
+  public void testFromSnapshot() {
+    final ConfigSnapshot snapshot = Keys.resolveAll(
+        new MapSource(ImmutableMap.of("server.port", "80", "server.timeout", "5m")),
+        ConfigKeyProcessorTest_ServerConfig_Blazon.KEYS);
+    final ServerConfig config = ConfigKeyProcessorTest_ServerConfig_Blazon.of(snapshot);
+    assertEquals(80, config.port());
+    assertEquals(new Quantity<>(5L, Unit.m), config.timeout());
+    assertTrue(config.hasTimeout());
+    assertEquals(4096L, config.maxSize());
+  }
+
+  @Test
+  public void testMissingPrimitive() {
+    exception.expect(IllegalStateException.class);
+    exception.expectMessage("server.port");
+    ConfigKeyProcessorTest_ServerConfig_Blazon.load(new MapSource(ImmutableMap.of()));
+  }
+
+  @Test
+  public void testRegistry() {
+    final KeyRegistry registry = ConfigKeyProcessorTest_ServerConfig_Blazon.REGISTRY;
+    assertEquals(ConfigKeyProcessorTest_ServerConfig_Blazon.KEYS, registry.getKeys());
+    assertEquals(5, registry.size());
+    for (int i = 0; i < registry.size(); i++) {
+      final Key<?> key = registry.getKeys().get(i);
+      assertEquals(i, registry.indexOf(key.getKey()));
+      assertSame(key, registry.get(key.getKey()));
+      assertEquals(key.getType().description(), registry.getDescription(i));
+    }
+    assertEquals(-1, registry.indexOf("server.missing"));
+    assertNull(registry.get("server"));
+  }
+
+  @Test
+  public void testConstantName() {
+    assertEquals("PORT", Accessor.constantName("port"));
+    assertEquals("MAX_THREADS", Accessor.constantName("maxThreads"));
+    assertEquals("URL", Accessor.constantName("URL"));
+    assertEquals("HTTP2_PORT", Accessor.constantName("http2Port"));
+  }
+
+  private String compileErrors(final String source) throws IOException {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    final File file = new File(folder.newFolder("src"), "Bad.java");
+    Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+    final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager files =
+        compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8)) {
+      final boolean success = compiler.getTask(null, files, diagnostics,
+          Arrays.asList("-proc:only", "-processor", ConfigKeyProcessor.class.getName(), "-s",
+              folder.newFolder("generated").getPath(), "-classpath",
+              System.getProperty("java.class.path")),
+          null, files.getJavaFileObjects(file)).call();
+      final StringBuilder errors = new StringBuilder();
+      for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+        if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+          errors.append(diagnostic.getMessage(Locale.ROOT)).append('\n');
+        }
+      }
+      assertEquals(success, errors.length() == 0);
+      return errors.toString();
+    }
+  }
+
+  @Test
+  public void testUnannotatedMethod() throws IOException {
+    final String errors = compileErrors("import net.revelc.code.blazon.ConfigKey;\n"
+        + "interface Bad {\n"
+        + "  @ConfigKey(value = \"a\", type = net.revelc.code.blazon.types.network.Port.class)\n"
+        + "  int a();\n"
+        + "  int b();\n"
+        + "}\n");
+    assertTrue(errors, errors.contains("Method b of configuration interface Bad"));
+  }
+
+  @Test
+  public void testMismatchedType() throws IOException {
+    final String errors = compileErrors("import net.revelc.code.blazon.ConfigKey;\n"
+        + "interface Bad {\n"
+        + "  @ConfigKey(value = \"a\", type = net.revelc.code.blazon.types.network.Port.class)\n"
+        + "  String a();\n"
+        + "}\n");
+    assertTrue(errors, errors.contains("can't be returned as java.lang.String"));
+  }
+
+  @Test
+  public void testInvalidTypes() throws IOException {
+    final String errors = compileErrors("import net.revelc.code.blazon.ConfigKey;\n"
+        + "interface Bad {\n"
+        + "  @ConfigKey(value = \"a\", type = String.class, field = \"CASE_INSENSITIVE_ORDER\")\n"
+        + "  int a();\n"
+        + "  @ConfigKey(value = \"b\", type = net.revelc.code.blazon.Type.class)\n"
+        + "  int b();\n"
+        + "  @ConfigKey(value = \"c\", type = net.revelc.code.blazon.types.network.Port.class,\n"
+        + "      field = \"MISSING\")\n"
+        + "  int c();\n"
+        + "  @ConfigKey(value = \"d\", type = net.revelc.code.blazon.types.network.Port.class,\n"
+        + "      defaultValue = {\"1\", \"2\"})\n"
+        + "  int d();\n"
+        + "}\n");
+    assertTrue(errors, errors.contains("is not a parameterized Type"));
+    assertTrue(errors, errors.contains("must be a concrete, non-generic class"));
+    assertTrue(errors, errors.contains("does not have a public static field named MISSING"));
+    assertTrue(errors, errors.contains("At most one default value"));
+  }
+
+  @Test
+  public void testDuplicateKey() throws IOException {
+    final String errors = compileErrors("import net.revelc.code.blazon.ConfigKey;\n"
+        + "interface Bad {\n"
+        + "  @ConfigKey(value = \"a\", type = net.revelc.code.blazon.types.network.Port.class)\n"
+        + "  int a();\n"
+        + "  @ConfigKey(value = \"a\", type = net.revelc.code.blazon.types.network.Port.class)\n"
+        + "  int b();\n"
+        + "  @ConfigKey(value = \"c\", type = net.revelc.code.blazon.types.network.Port.class)\n"
+        + "  int registry();\n"
+        + "}\n");
+    assertTrue(errors, errors.contains("The key a is already used"));
+    assertTrue(errors, errors.contains("The constant name REGISTRY"));
+  }
+
+  @Test
+  public void testNotAnInterface() throws IOException {
+    final String errors = compileErrors("import net.revelc.code.blazon.ConfigKey;\n"
+        + "abstract class Bad {\n"
+        + "  @ConfigKey(value = \"a\", type = net.revelc.code.blazon.types.network.Port.class)\n"
+        + "  abstract int a();\n"
+        + "}\n");
+    assertTrue(errors, errors.contains("only allowed on methods of interfaces"));
+  }
+
+}
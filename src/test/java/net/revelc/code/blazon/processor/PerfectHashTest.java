@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import net.revelc.code.blazon.KeyRegistry;
+import org.junit.Test;
+
+public class PerfectHashTest {
+
+  private static void assertPlaced(final List<String> names, final PerfectHash table) {
+    final int mask = table.slots.length - 1;
+    assertTrue(table.slots.length >= 2 * names.size());
+    for (int i = 0; i < names.size(); i++) {
+      final int bucket = KeyRegistry.hash(names.get(i), 0) & (table.displacements.length - 1);
+      int slot = KeyRegistry.hash(names.get(i), table.displacements[bucket]) & mask;
+      if (table.perfect) {
+        assertEquals(i, table.slots[slot]);
+      } else {
+        while (table.slots[slot] != i) {
+          assertTrue(table.slots[slot] >= 0);
+          slot = (slot + 1) & mask;
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPerfect() {
+    final List<String> names = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      names.add("server" + i + ".port");
+    }
+    final PerfectHash table = PerfectHash.build(names);
+    assertTrue(table.perfect);
+    assertPlaced(names, table);
+  }
+
+  @Test
+  public void testSmall() {
+    assertPlaced(Collections.<String>emptyList(), PerfectHash.build(Collections.emptyList()));
+    final List<String> one = Arrays.asList("a");
+    final PerfectHash table = PerfectHash.build(one);
+    assertEquals(2, table.slots.length);
+    assertPlaced(one, table);
+  }
+
+  @Test
+  public void testCollidingHashCodes() {
+    // "Aa" and "BB" have the same hash code, so no seed separates them
+    final List<String> names = Arrays.asList("Aa", "BB", "c");
+    final PerfectHash table = PerfectHash.build(names);
+    assertFalse(table.perfect);
+    assertPlaced(names, table);
+  }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import net.revelc.code.blazon.CountingMapSource;
+import net.revelc.code.blazon.Key;
+import net.revelc.code.blazon.Source;
+import net.revelc.code.blazon.types.network.Port;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CompositeSourceTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testPrecedence() {
+    final Properties site = new Properties();
+    site.setProperty("port", "8080");
+    site.setProperty("name", "site");
+    final CountingMapSource defaults =
+        new CountingMapSource(ImmutableMap.of("port", "80", "name", "default", "threads", "4"));
+    final PropertiesSource frozenSite = PropertiesSource.frozen(site);
+    final MapSource overrides = new MapSource(ImmutableMap.of("name", "override"));
+    final CompositeSource composite = new CompositeSource(defaults, frozenSite, overrides);
+
+    assertEquals("8080", composite.getValue("port"));
+    assertEquals("override", composite.getValue("name"));
+    assertEquals("4", composite.getValue("threads"));
+    assertNull(composite.getValue("missing"));
+    assertEquals((Integer) 8080, new Key<>("port", Port.ANY).getValue(composite));
+
+    // all of the layers were merged, so the defaults were never probed
+    assertEquals(0, defaults.getLookups());
+    assertTrue(composite.isImmutable());
+
+    assertSame(frozenSite, composite.getLayer("port"));
+    assertSame(overrides, composite.getLayer("name"));
+    assertSame(defaults, composite.getLayer("threads"));
+    assertNull(composite.getLayer("missing"));
+  }
+
+  @Test
+  public void testMappedLayerIsNotMerged() throws IOException {
+    final Path file = folder.newFile().toPath();
+    Files.write(file, "port=8080\nname=site\n".getBytes(ISO_8859_1));
+    final CountingMapSource defaults =
+        new CountingMapSource(ImmutableMap.of("port", "80", "threads", "4"));
+    final MappedPropertiesSource site = new MappedPropertiesSource(file);
+    final MapSource overrides = new MapSource(ImmutableMap.of("name", "override"));
+    final CompositeSource composite = new CompositeSource(defaults, site, overrides);
+
+    assertEquals("8080", composite.getValue("port"));
+    assertEquals("override", composite.getValue("name"));
+    assertEquals(0, defaults.getLookups());
+    // the mapped layer separates the defaults from the overrides, so they are probed separately
+    assertEquals("4", composite.getValue("threads"));
+    assertEquals(1, defaults.getLookups());
+    assertSame(site, composite.getLayer("port"));
+  }
+
+  @Test
+  public void testMutableLayers() {
+    final Map<String, String> environment = new HashMap<>();
+    final CountingMapSource defaults =
+        new CountingMapSource(ImmutableMap.of("port", "80", "name", "default"));
+    final CompositeSource composite = new CompositeSource(defaults, new MapSource(environment),
+        new MapSource(ImmutableMap.of("threads", "8")));
+    assertFalse(composite.isImmutable());
+
+    assertEquals("80", composite.getValue("port"));
+    environment.put("port", "9090");
+    assertEquals("9090", composite.getValue("port"));
+    assertEquals("8", composite.getValue("threads"));
+    assertEquals("default", composite.getValue("name"));
+    assertSame(composite.getSource().get(1), composite.getLayer("port"));
+
+    // a single immutable layer is probed directly
+    assertEquals(2, defaults.getLookups());
+  }
+
+  @Test
+  public void testNested() {
+    final CompositeSource inner = new CompositeSource(new MapSource(ImmutableMap.of("a", "1")),
+        new MapSource(ImmutableMap.of("a", "2", "b", "2")));
+    final CountingMapSource top = new CountingMapSource(ImmutableMap.of("b", "3"));
+    final CompositeSource outer = new CompositeSource(inner, top);
+    assertEquals("2", outer.getValue("a"));
+    assertEquals("3", outer.getValue("b"));
+    assertEquals(0, top.getLookups());
+    assertSame(inner, outer.getLayer("a"));
+  }
+
+  @Test
+  public void testEmpty() {
+    final CompositeSource composite = new CompositeSource();
+    assertNull(composite.getValue("a"));
+    assertTrue(composite.isImmutable());
+    assertNull(new CompositeSource(composite).getValue("a"));
+  }
+
+  @Test
+  public void testGeneration() {
+    final Properties props = new Properties();
+    final SystemPropertiesSource snapshot = new SystemPropertiesSource(props);
+    final CompositeSource composite =
+        new CompositeSource(new MapSource(ImmutableMap.of("a", "1")), snapshot);
+    final long generation = composite.getGeneration();
+    assertTrue(generation >= 0);
+    snapshot.refresh();
+    assertTrue(composite.getGeneration() > generation);
+
+    assertEquals(0, new CompositeSource(new MapSource(ImmutableMap.of("a", "1"))).getGeneration());
+    assertEquals(Source.UNVERSIONED,
+        new CompositeSource(snapshot, new MapSource(new HashMap<>())).getGeneration());
+  }
+
+  @Test
+  public void testEnumeration() {
+    final Map<String, String> environment = new HashMap<>();
+    environment.put("server.port", "9090");
+    final CompositeSource composite =
+        new CompositeSource(new MapSource(ImmutableMap.of("server.port", "80", "name", "a")),
+            new MapSource(ImmutableMap.of("name", "b")), new MapSource(environment));
+    assertTrue(composite.isEnumerable());
+    final Map<String, String> entries = new TreeMap<>();
+    composite.forEachEntry(entries::put);
+    assertEquals(ImmutableMap.of("name", "b", "server.port", "9090"), entries);
+    assertEquals(ImmutableList.of("port"), composite.subset("server.").keys());
+
+    assertFalse(new CompositeSource(composite,
+        new EnvironmentSource(ImmutableMap.<String, String>of(), key -> key)).isEnumerable());
+  }
+
+}
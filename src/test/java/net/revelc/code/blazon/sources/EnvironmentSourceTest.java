@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.revelc.code.blazon.Key;
+import net.revelc.code.blazon.types.network.Port;
+import org.junit.Test;
+
+public class EnvironmentSourceTest {
+
+  @Test
+  public void testDefaultMapping() {
+    final Function<String, String> mapping = EnvironmentSource.defaultMapping("");
+    assertEquals("SERVER1_PORT", mapping.apply("server1.port"));
+    assertEquals("MY_KEY_NAME", mapping.apply("my-key.name"));
+    assertEquals("APP_SERVER_PORT", EnvironmentSource.defaultMapping("app_").apply("server.port"));
+  }
+
+  @Test
+  public void testSnapshot() {
+    final Map<String, String> environment = new HashMap<>();
+    environment.put("SERVER1_PORT", "8080");
+    environment.put("APP_NAME", "test");
+    final EnvironmentSource source =
+        new EnvironmentSource(environment, EnvironmentSource.defaultMapping(""));
+    environment.put("SERVER2_PORT", "9090");
+
+    assertEquals("8080", source.getValue("server1.port"));
+    assertEquals("test", source.getValue("app.name"));
+    assertNull(source.getValue("server2.port"));
+    assertEquals((Integer) 8080, new Key<>("server1.port", Port.ANY).getValue(source));
+    assertTrue(source.isImmutable());
+  }
+
+  @Test
+  public void testTranslatedOnce() {
+    final AtomicInteger translations = new AtomicInteger();
+    final EnvironmentSource source = new EnvironmentSource(ImmutableMap.of("PORT", "80"), key -> {
+      translations.incrementAndGet();
+      return key.toUpperCase();
+    }, ImmutableList.of("port", "name"));
+    assertEquals(2, translations.get());
+    for (int i = 0; i < 3; i++) {
+      assertEquals("80", source.getValue("port"));
+      assertNull(source.getValue("name"));
+    }
+    assertEquals(2, translations.get());
+
+    // keys which were not indexed are translated on each lookup
+    assertNull(source.getValue("host"));
+    assertNull(source.getValue("host"));
+    assertEquals(4, translations.get());
+    assertEquals("PORT", source.getEnvironmentName("port"));
+  }
+
+  @Test
+  public void testSystemEnvironment() {
+    final EnvironmentSource source = new EnvironmentSource();
+    for (final Map.Entry<String, String> entry : System.getenv().entrySet()) {
+      if (entry.getKey().matches("[A-Z0-9_]+")) {
+        assertEquals(entry.getValue(), source.getValue(entry.getKey().toLowerCase()));
+      }
+    }
+  }
+
+}
@@ -19,8 +19,10 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import com.google.common.collect.ImmutableMap;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.revelc.code.blazon.Key;
 import net.revelc.code.blazon.types.numeric.IntegerType;
 import org.junit.Before;
@@ -63,4 +65,17 @@ public class MapSourceTest {
     assertEquals((Integer) 42, k.getValue(source));
   }
 
+  @Test
+  public void testImmutable() {
+    assertFalse(source.isImmutable());
+    assertTrue(new MapSource(ImmutableMap.of("a", "1", "b", "2")).isImmutable());
+
+    // the string form of a mutable value can change, even in an immutable map
+    final AtomicInteger counter = new AtomicInteger(1);
+    final MapSource mutableValues = new MapSource(ImmutableMap.of("a", "1", "b", counter));
+    assertFalse(mutableValues.isImmutable());
+    counter.set(2);
+    assertEquals("2", mutableValues.getValue("b"));
+  }
+
 }
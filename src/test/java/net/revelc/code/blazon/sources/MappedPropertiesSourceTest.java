@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import net.revelc.code.blazon.Key;
+import net.revelc.code.blazon.types.numeric.IntegerType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedPropertiesSourceTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private MappedPropertiesSource map(final String contents) throws IOException {
+    final Path file = folder.newFile().toPath();
+    Files.write(file, contents.getBytes(ISO_8859_1));
+    return new MappedPropertiesSource(file);
+  }
+
+  // verify every key in the file has the same value as when it's loaded by Properties
+  private void assertSameAsProperties(final String contents) throws IOException {
+    final Properties props = new Properties();
+    props.load(new ByteArrayInputStream(contents.getBytes(ISO_8859_1)));
+    final MappedPropertiesSource source = map(contents);
+    assertEquals(props.size(), source.size());
+    for (final String key : props.stringPropertyNames()) {
+      assertEquals(key, props.getProperty(key), source.getValue(key));
+    }
+  }
+
+  @Test
+  public void testSimple() throws IOException {
+    final MappedPropertiesSource source = map("a=1\nb = 2\r\nc:3\rd 4\n");
+    assertEquals(4, source.size());
+    assertEquals("1", source.getValue("a"));
+    assertEquals("2", source.getValue("b"));
+    assertEquals("3", source.getValue("c"));
+    assertEquals("4", source.getValue("d"));
+    assertNull(source.getValue("e"));
+    assertEquals((Integer) 4, new Key<>("d", IntegerType.DEC).getValue(source));
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    final MappedPropertiesSource source = map("");
+    assertEquals(0, source.size());
+    assertNull(source.getValue(""));
+    assertSameAsProperties("# only a comment");
+  }
+
+  @Test
+  public void testSyntax() throws IOException {
+    assertSameAsProperties("# comment\n! comment\n  \t\n  key1 = value1  \n");
+    assertSameAsProperties("key2 == value2\nkey3 :: value3\nkey4 =: value4\nkey5\n");
+    assertSameAsProperties("key6=\nkey7 \t\f value 7\n=no key\n:\n");
+    assertSameAsProperties("dup=first\ndup=second\ndup\\=not=third\n");
+  }
+
+  @Test
+  public void testEscapes() throws IOException {
+    assertSameAsProperties("k\\ ey\\=1\\:=v\\talue\\n\\r\\f\\\\\\x\n");
+    assertSameAsProperties("\\u00e9t\\u00E9=\\u20ac 5\n\\#not-comment=x\n");
+    assertSameAsProperties("latin=\u00e9\u00ff\n");
+  }
+
+  @Test
+  public void testContinuations() throws IOException {
+    assertSameAsProperties("long = one, \\\n    two, \\\r\n\tthree\nafter=x\n");
+    assertSameAsProperties("split\\\n  key = split\\\r  value\\\n");
+    assertSameAsProperties("sep \\\n  = value\nend = \\\\\nnext = y\n# comment \\\nz = 1");
+    assertSameAsProperties("trailing = backslash\\");
+  }
+
+  @Test
+  public void testMalformedEscapeInValue() throws IOException {
+    exception.expect(IllegalArgumentException.class);
+    exception.expectMessage("Malformed \\uxxxx encoding.");
+    map("a=1\nb=\\u00zz\nc=3\n");
+  }
+
+  @Test
+  public void testTruncatedEscapeInValue() throws IOException {
+    exception.expect(IllegalArgumentException.class);
+    map("a=\\u00e\nb=2\n");
+  }
+
+}
@@ -19,6 +19,8 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import java.util.Properties;
 import net.revelc.code.blazon.Key;
 import net.revelc.code.blazon.types.numeric.IntegerType;
@@ -64,4 +66,55 @@ public class PropertiesSourceTest {
     assertEquals((Integer) 42, k.getValue(source));
   }
 
+  @Test
+  public void testFrozen() {
+    final Properties defaults = new Properties();
+    defaults.setProperty("my.default.key", "1");
+    defaults.setProperty("my.test.key", "2");
+    final Properties props = new Properties(defaults);
+    props.setProperty("my.test.key", "23");
+    props.put("my.object.key", 42);
+
+    final PropertiesSource frozen = PropertiesSource.frozen(props);
+    assertTrue(frozen.isFrozen());
+    assertFalse(source.isFrozen());
+    assertEquals("23", frozen.getValue("my.test.key"));
+    assertEquals("1", frozen.getValue("my.default.key"));
+    // like getProperty, non-string values are not visible
+    assertNull(frozen.getValue("my.object.key"));
+    assertNull(frozen.getValue("my.test.key.non-existent"));
+
+    // later changes are not seen
+    props.setProperty("my.test.key", "24");
+    assertEquals("23", frozen.getValue("my.test.key"));
+    assertEquals((Integer) 23, new Key<>("my.test.key", IntegerType.DEC).getValue(frozen));
+  }
+
+  @Test
+  public void testGetValues() {
+    final ImmutableList<String> keys = ImmutableList.of("my.test.key", "my.test.key.non-existent");
+    assertEquals(ImmutableMap.of("my.test.key", "23"), source.getValues(keys));
+    assertEquals(ImmutableMap.of("my.test.key", "23"),
+        PropertiesSource.frozen(source.getSource()).getValues(keys));
+  }
+
+  @Test
+  public void testEnumeration() {
+    final Properties defaults = new Properties();
+    defaults.setProperty("my.default.key", "1");
+    final Properties props = new Properties(defaults);
+    props.setProperty("my.test.key", "23");
+    props.put("my.object.key", 42);
+    final PropertiesSource live = new PropertiesSource(props);
+    assertTrue(live.isEnumerable());
+    assertEquals(ImmutableList.of("my.default.key", "my.test.key"), live.keys());
+    props.setProperty("my.new.key", "2");
+    assertEquals(ImmutableList.of("default.key", "new.key", "test.key"),
+        live.subset("my.").keys());
+
+    final PropertiesSource frozen = PropertiesSource.frozen(props);
+    props.setProperty("my.later.key", "3");
+    assertEquals(ImmutableList.of("my.default.key", "my.new.key", "my.test.key"), frozen.keys());
+  }
+
 }
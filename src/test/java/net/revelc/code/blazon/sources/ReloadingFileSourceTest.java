@@ -0,0 +1,189 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.revelc.code.blazon.Key;
+import net.revelc.code.blazon.metrics.Metrics;
+import net.revelc.code.blazon.types.network.Port;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class ReloadingFileSourceTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static final Key<Integer> PORT = new Key<>("server.port", Port.ANY);
+
+  private Path write(final String contents) throws IOException {
+    final Path file = folder.getRoot().toPath().resolve("test.properties");
+    Files.write(file, contents.getBytes(ISO_8859_1));
+    return file;
+  }
+
+  @Test
+  public void testReload() throws IOException {
+    final Path file = write("server.port=23\n");
+    try (ReloadingFileSource source = new ReloadingFileSource(file, 10, PORT)) {
+      assertEquals("23", source.getValue("server.port"));
+      assertEquals((Integer) 23, PORT.getValue(source));
+      assertNull(source.getValue("other"));
+
+      write("server.port=42\nother=x\n");
+      assertTrue(source.reload());
+      assertEquals("42", source.getValue("server.port"));
+      assertEquals("x", source.getValue("other"));
+      assertNull(source.getLastFailure());
+    }
+  }
+
+  @Test
+  public void testListeners() throws IOException {
+    final Path file = write("server.port=23\n");
+    try (ReloadingFileSource source = new ReloadingFileSource(file, 10, PORT)) {
+      final AtomicInteger reloads = new AtomicInteger();
+      final Runnable listener = reloads::incrementAndGet;
+      source.addListener(listener);
+      assertTrue(source.reload());
+      write("server.port=123456\n");
+      assertFalse(source.reload());
+      assertEquals(1, reloads.get());
+
+      assertTrue(source.removeListener(listener));
+      write("server.port=42\n");
+      assertTrue(source.reload());
+      assertEquals(1, reloads.get());
+    }
+  }
+
+  @Test
+  public void testListenerFailureIsRecorded() throws IOException, InterruptedException {
+    final Path file = write("server.port=23\n");
+    try (ReloadingFileSource source = new ReloadingFileSource(file, 10, PORT)) {
+      final IllegalStateException failure = new IllegalStateException("listener failed");
+      source.addListener(() -> {
+        throw failure;
+      });
+      write("server.port=42\n");
+      // some platforms poll for changes, so this may take several seconds
+      final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+      while (source.getLastFailure() == null && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(failure, source.getLastFailure());
+      assertEquals("42", source.getValue("server.port"));
+    }
+  }
+
+  @Test
+  public void testKeepLastGood() throws IOException {
+    final Path file = write("server.port=23\n");
+    try (ReloadingFileSource source = new ReloadingFileSource(file, 10, PORT)) {
+      write("server.port=123456\n");
+      assertFalse(source.reload());
+      assertTrue(source.getLastFailure() instanceof IllegalArgumentException);
+      assertEquals("23", source.getValue("server.port"));
+
+      Files.delete(file);
+      assertFalse(source.reload());
+      assertTrue(source.getLastFailure() instanceof IOException);
+      assertEquals("23", source.getValue("server.port"));
+    }
+  }
+
+  @Test
+  public void testValidationNotRecordedInMetrics() throws IOException {
+    final Key<Integer> port = new Key<>("reloading.port", Port.ANY);
+    final Path file = write("reloading.port=23\n");
+    Metrics.reset();
+    Metrics.enable();
+    try (ReloadingFileSource source = new ReloadingFileSource(file, 10, port)) {
+      write("reloading.port=42\n");
+      assertTrue(source.reload());
+      assertFalse(Metrics.snapshotKeys().containsKey("reloading.port"));
+    } finally {
+      Metrics.disable();
+      Metrics.reset();
+    }
+  }
+
+  @Test
+  public void testDirectoryDeleted() throws IOException, InterruptedException {
+    final Path directory = folder.newFolder().toPath();
+    final Path file = directory.resolve("test.properties");
+    Files.write(file, "server.port=23\n".getBytes(ISO_8859_1));
+    try (ReloadingFileSource source = new ReloadingFileSource(file, 10, PORT)) {
+      Files.delete(file);
+      Files.delete(directory);
+      // some platforms poll for changes, so this may take several seconds
+      final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+      while (!isUnwatched(source.getLastFailure()) && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertTrue(isUnwatched(source.getLastFailure()));
+      assertEquals("23", source.getValue("server.port"));
+    }
+  }
+
+  private static boolean isUnwatched(final Exception failure) {
+    return failure instanceof IOException
+        && failure.getMessage().endsWith("can no longer be watched");
+  }
+
+  @Test
+  public void testWatched() throws IOException, InterruptedException {
+    final Path file = write("server.port=23\n");
+    try (ReloadingFileSource source = new ReloadingFileSource(file, 10, PORT)) {
+      write("server.port=42\n");
+      // some platforms poll for changes, so this may take several seconds
+      final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+      while (!"42".equals(source.getValue("server.port")) && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals("42", source.getValue("server.port"));
+    }
+  }
+
+  @Test
+  public void testInvalidInitially() throws IOException {
+    final Path file = write("server.port=-1\n");
+    exception.expect(IllegalArgumentException.class);
+    new ReloadingFileSource(file, 10, PORT).close();
+  }
+
+  @Test
+  public void testMissingInitially() throws IOException {
+    final Path file = folder.getRoot().toPath().resolve("missing.properties");
+    exception.expect(IOException.class);
+    new ReloadingFileSource(file, 10, PORT).close();
+  }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class StringTableTest {
+
+  @Test
+  public void testEmpty() {
+    final StringTable table = StringTable.copyOf(new HashMap<>());
+    assertEquals(0, table.size());
+    assertNull(table.get("a"));
+  }
+
+  @Test
+  public void testCollisions() {
+    // "Aa" and "BB" have the same hash code
+    final Map<String, String> map = new HashMap<>();
+    map.put("Aa", "1");
+    map.put("BB", "2");
+    map.put("AaAa", "3");
+    map.put("BBBB", "4");
+    map.put("AaBB", "5");
+    map.put(null, "6");
+    map.put("null", null);
+    final StringTable table = StringTable.copyOf(map);
+    assertEquals(5, table.size());
+    assertEquals("1", table.get("Aa"));
+    assertEquals("2", table.get("BB"));
+    assertEquals("3", table.get("AaAa"));
+    assertEquals("4", table.get("BBBB"));
+    assertEquals("5", table.get("AaBB"));
+    assertNull(table.get("BBAa"));
+    assertNull(table.get("null"));
+  }
+
+  @Test
+  public void testMany() {
+    final Map<String, String> map = new HashMap<>();
+    for (int i = 0; i < 10000; i++) {
+      map.put("key." + i, Integer.toString(i));
+    }
+    final StringTable table = StringTable.copyOf(map);
+    assertEquals(10000, table.size());
+    for (int i = 0; i < 10000; i++) {
+      assertEquals(Integer.toString(i), table.get("key." + i));
+    }
+    assertNull(table.get("key.10000"));
+  }
+
+}
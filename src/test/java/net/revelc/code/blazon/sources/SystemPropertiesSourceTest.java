@@ -0,0 +1,73 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.sources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Properties;
+import net.revelc.code.blazon.Source;
+import org.junit.Test;
+
+public class SystemPropertiesSourceTest {
+
+  @Test
+  public void testRefresh() {
+    final Properties defaults = new Properties();
+    defaults.setProperty("my.default.key", "1");
+    final Properties props = new Properties(defaults);
+    props.setProperty("my.test.key", "23");
+    final SystemPropertiesSource source = new SystemPropertiesSource(props);
+
+    assertEquals("23", source.getValue("my.test.key"));
+    assertEquals("1", source.getValue("my.default.key"));
+    assertFalse(source.isImmutable());
+
+    props.setProperty("my.test.key", "24");
+    props.setProperty("my.new.key", "25");
+    assertEquals("23", source.getValue("my.test.key"));
+    assertNull(source.getValue("my.new.key"));
+
+    source.refresh();
+    assertEquals("24", source.getValue("my.test.key"));
+    assertEquals(ImmutableMap.of("my.new.key", "25", "my.default.key", "1"),
+        source.getValues(ImmutableList.of("my.new.key", "my.missing.key", "my.default.key")));
+  }
+
+  @Test
+  public void testEnumeration() {
+    final Properties props = new Properties();
+    props.setProperty("my.test.key", "23");
+    final SystemPropertiesSource source = new SystemPropertiesSource(props);
+    final Source<Source<?>> subset = source.subset("my.");
+    assertEquals(ImmutableList.of("test.key"), subset.keys());
+    props.setProperty("my.new.key", "25");
+    assertEquals(ImmutableList.of("test.key"), subset.keys());
+    // the index is rebuilt when the generation changes
+    source.refresh();
+    assertEquals(ImmutableList.of("new.key", "test.key"), subset.keys());
+    assertEquals(source.getGeneration(), subset.getGeneration());
+  }
+
+  @Test
+  public void testSystemProperties() {
+    final SystemPropertiesSource source = new SystemPropertiesSource();
+    assertEquals(System.getProperty("java.version"), source.getValue("java.version"));
+  }
+
+}
@@ -18,6 +18,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
 import com.google.common.base.Optional;
+import java.nio.CharBuffer;
 import net.revelc.code.blazon.Type;
 import org.junit.Test;
 
@@ -53,4 +54,62 @@ public class AbstractTrimmedTypeTest {
     assertEquals("4\n2", type.parse(" \t4\n2 \n"));
   }
 
+  @Test
+  public void testParseWindow() {
+    final StringBuilder windows = new StringBuilder();
+    final Type<String> windowed = new AbstractTrimmedType<String>() {
+      @Override
+      protected Optional<String> convert(final String normalized) {
+        throw new AssertionError("should have parsed the window");
+      }
+
+      @Override
+      protected Optional<String> convert(final CharSequence raw, final int start, final int end) {
+        windows.append('[').append(start).append(',').append(end).append(']');
+        return Optional.of(raw.subSequence(start, end).toString());
+      }
+
+      @Override
+      public String description() {
+        return "windowed test type";
+      }
+    };
+    assertEquals("4 2", windowed.parse(new StringBuilder(" \t4 2 \n")));
+    assertEquals("42", windowed.parse(CharBuffer.wrap("42")));
+    assertEquals("42", windowed.parse("  42"));
+    assertNull(windowed.parse(new StringBuilder("   ")));
+    assertEquals("[2,5][0,2][2,4]", windows.toString());
+
+    // the default window conversion uses the string conversion
+    assertEquals("4 2", type.parse(new StringBuilder(" \t4 2 \n")));
+  }
+
+  @Test
+  public void testOverriddenPreconditions() {
+    final Type<String> upper = new AbstractTrimmedType<String>() {
+      @Override
+      protected Optional<String> checkPreconditions(final Optional<String> raw) {
+        final Optional<String> trimmed = super.checkPreconditions(raw);
+        return trimmed.isPresent() ? Optional.of(trimmed.get().toUpperCase()) : trimmed;
+      }
+
+      @Override
+      protected Optional<String> convert(final String normalized) {
+        return Optional.of(normalized);
+      }
+
+      @Override
+      protected Optional<String> convert(final CharSequence raw, final int start, final int end) {
+        throw new AssertionError("should have applied the preconditions");
+      }
+
+      @Override
+      public String description() {
+        return "upper-case test type";
+      }
+    };
+    assertEquals("ABC", upper.parse(new StringBuilder(" abc ")));
+    assertEquals("ABC", upper.parse("abc"));
+  }
+
 }
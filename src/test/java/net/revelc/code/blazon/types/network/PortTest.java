@@ -39,6 +39,19 @@ public class PortTest {
     assertEquals((Integer) 65535, type.parse("65535"));
   }
 
+  @Test
+  public void testParseAsInt() {
+    assertEquals(0, Port.ANY.parseAsInt("0"));
+    assertEquals(65535, Port.ANY.parseAsInt(" 65535 "));
+    assertEquals(1023, Port.SYSTEM.parseAsInt("1023"));
+  }
+
+  @Test
+  public void testParseAsIntTooHigh() {
+    exception.expect(IllegalArgumentException.class);
+    Port.SYSTEM.parseAsInt("1024");
+  }
+
   @Test
   public void testAnyTooLow() {
     final Port type = Port.ANY;
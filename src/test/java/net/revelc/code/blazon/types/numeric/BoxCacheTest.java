@@ -0,0 +1,50 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.types.numeric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class BoxCacheTest {
+
+  @Test
+  public void testCachedInts() {
+    assertSame(BoxCache.valueOf(8080), BoxCache.valueOf(8080));
+    assertSame(BoxCache.optionalOf(0), BoxCache.optionalOf(0));
+    assertSame(BoxCache.valueOf(BoxCache.MAX_CACHED), BoxCache.valueOf(BoxCache.MAX_CACHED));
+    assertEquals((Integer) 65536, BoxCache.valueOf(65536));
+    assertEquals((Integer) (-1), BoxCache.valueOf(-1));
+    assertNotSame(BoxCache.optionalOf(-1), BoxCache.optionalOf(-1));
+  }
+
+  @Test
+  public void testCachedLongs() {
+    assertSame(BoxCache.valueOf(4096L), BoxCache.valueOf(4096L));
+    assertEquals((Long) Long.MAX_VALUE, BoxCache.valueOf(Long.MAX_VALUE));
+    assertEquals((Long) (-5L), BoxCache.valueOf(-5L));
+    assertNotSame(BoxCache.optionalOf(65536L), BoxCache.optionalOf(65536L));
+  }
+
+  @Test
+  public void testParsedValuesAreShared() {
+    assertSame(IntegerType.DEC.parse("8080"), IntegerType.DEC.parse(" 8080 "));
+    assertSame(IntegerType.HEX.parse("1f90"), IntegerType.DEC.parse("8080"));
+    assertSame(LongType.DEC.parse("1024"), LongType.DEC.parse("1024"));
+  }
+
+}
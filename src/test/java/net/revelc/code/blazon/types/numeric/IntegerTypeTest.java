@@ -15,7 +15,10 @@
 package net.revelc.code.blazon.types.numeric;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import com.google.common.base.Optional;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -57,6 +60,34 @@ public class IntegerTypeTest {
     assertEquals((Integer) (-19), IntegerType.DEC.parse(" -19 "));
   }
 
+  @Test
+  public void testParseAsInt() {
+    assertEquals(11, IntegerType.BIN.parseAsInt("1011"));
+    assertEquals(-255, IntegerType.HEX.parseAsInt(new StringBuilder(" -fF\n")));
+    assertEquals(Integer.MIN_VALUE,
+        IntegerType.DEC.parseAsInt(Integer.toString(Integer.MIN_VALUE)));
+    assertEquals(Integer.MAX_VALUE, IntegerType.DEC.parseAsInt("+" + Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void testParseWindow() {
+    assertEquals((Integer) (-255), IntegerType.HEX.parse(new StringBuilder(" -fF\n")));
+    assertEquals(42, IntegerType.DEC.parseAsInt("port= 42 ;", 5, 9));
+    assertEquals(-7, IntegerType.DEC.parseAsInt(new StringBuilder("x-7"), 1, 3));
+  }
+
+  @Test
+  public void testParseAsIntTooBig() {
+    exception.expect(NumberFormatException.class);
+    IntegerType.DEC.parseAsInt(Long.toString(1L + Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void testParseAsIntSignOnly() {
+    exception.expect(NumberFormatException.class);
+    IntegerType.DEC.parseAsInt(" - ");
+  }
+
   @Test
   public void testTooBig() {
     exception.expect(NumberFormatException.class);
@@ -75,6 +106,14 @@ public class IntegerTypeTest {
     IntegerType.DEC.parse(" 5_2");
   }
 
+  @Test
+  public void testLenientParser() {
+    final IntegerType type = new IntegerType(new RadixParser(10, true, true));
+    assertEquals((Integer) 52, type.parse(" 5_2"));
+    assertEquals((Integer) 31, type.parse("0x1F"));
+    assertEquals(-5, type.parseAsInt("-0b101"));
+  }
+
   @Test
   public void testBadRadix() {
     IntegerType.DEC.parse("5");
@@ -82,4 +121,31 @@ public class IntegerTypeTest {
     IntegerType.BIN.parse("5");
   }
 
+  @Test
+  public void testEquivalentPrimitivePath() {
+    assertTrue(IntegerType.DEC.hasEquivalentPrimitivePath());
+    assertTrue(new IntegerRangeType(1, 5).hasEquivalentPrimitivePath());
+    assertFalse(new IntegerType() {
+      @Override
+      protected Optional<Integer> checkPostconditions(final Integer value) {
+        return Optional.of(value);
+      }
+    }.hasEquivalentPrimitivePath());
+  }
+
+  @Test
+  public void testOverriddenBound() {
+    final IntegerType small = new IntegerType() {
+      @Override
+      protected Integer getUpperBound() {
+        return 10;
+      }
+    };
+    assertEquals((Integer) 10, small.parse("10"));
+    assertTrue(small.hasEquivalentPrimitivePath());
+    assertTrue(small.description().endsWith("\u202510]."));
+    exception.expect(IllegalArgumentException.class);
+    small.parseAsInt("11");
+  }
+
 }
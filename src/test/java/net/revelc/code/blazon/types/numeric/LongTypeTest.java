@@ -57,6 +57,20 @@ public class LongTypeTest {
     assertEquals((Long) (-19L), LongType.DEC.parse(" -19 "));
   }
 
+  @Test
+  public void testParseAsLong() {
+    assertEquals(11L, LongType.BIN.parseAsLong("1011"));
+    assertEquals(-255L, LongType.HEX.parseAsLong(new StringBuilder(" -fF\n")));
+    assertEquals(Long.MIN_VALUE, LongType.DEC.parseAsLong(Long.toString(Long.MIN_VALUE)));
+    assertEquals(Long.MAX_VALUE, LongType.DEC.parseAsLong(Long.toString(Long.MAX_VALUE)));
+  }
+
+  @Test
+  public void testParseAsLongTooSmall() {
+    exception.expect(NumberFormatException.class);
+    LongType.DEC.parseAsLong(Long.toString(Long.MIN_VALUE) + "0");
+  }
+
   @Test
   public void testTooBig() {
     exception.expect(NumberFormatException.class);
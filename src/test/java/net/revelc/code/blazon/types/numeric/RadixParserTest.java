@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.types.numeric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class RadixParserTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  private static final RadixParser LENIENT = new RadixParser(10, true, true);
+
+  private static int parseInt(final RadixParser parser, final String s) {
+    return parser.parseInt(s, 0, s.length(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  private static long parseLong(final RadixParser parser, final String s) {
+    return parser.parseLong(s, 0, s.length(), Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  private static void assertMalformed(final RadixParser parser, final String s) {
+    try {
+      parseLong(parser, s);
+      fail("expected " + s + " to be malformed");
+    } catch (final NumberFormatException e) {
+      assertEquals("For input string: \"" + s + "\"", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testMatchesJdk() {
+    for (final String s : new String[] {"0", "-0", "+7", "-2147483648", "2147483647", "0042"}) {
+      assertEquals(Integer.parseInt(s), parseInt(RadixParser.DEC, s));
+    }
+    for (final String s : new String[] {"-9223372036854775808", "9223372036854775807"}) {
+      assertEquals(Long.parseLong(s), parseLong(RadixParser.DEC, s));
+    }
+    assertEquals(Integer.parseInt("-zz", 36), parseInt(new RadixParser(36), "-zz"));
+    assertEquals(0xff, parseInt(RadixParser.HEX, "fF"));
+    assertEquals(5, parseInt(RadixParser.BIN, "101"));
+    assertEquals(8, parseInt(RadixParser.OCT, "10"));
+  }
+
+  @Test
+  public void testMalformed() {
+    for (final String s : new String[] {"", "-", "+", "1_0", "0x10", "1 0", "a", "--1"}) {
+      assertMalformed(RadixParser.DEC, s);
+    }
+    assertMalformed(RadixParser.DEC, "9223372036854775808");
+    assertMalformed(RadixParser.DEC, "-9223372036854775809");
+  }
+
+  @Test
+  public void testIntOverflow() {
+    exception.expect(NumberFormatException.class);
+    parseInt(RadixParser.DEC, "2147483648");
+  }
+
+  @Test
+  public void testUnderscoresAndPrefixes() {
+    assertEquals(1_000_000, parseInt(LENIENT, "1_000_000"));
+    assertEquals(1000, parseInt(LENIENT, "1__000"));
+    assertEquals(-0xff, parseInt(LENIENT, "-0xFF"));
+    assertEquals(0b1010, parseInt(LENIENT, "+0b10_10"));
+    assertEquals(0, parseInt(LENIENT, "0"));
+    for (final String s : new String[] {"_1", "1_", "0x", "0x_1", "0b2", "1_x"}) {
+      assertMalformed(LENIENT, s);
+    }
+  }
+
+  @Test
+  public void testWindow() {
+    assertEquals(42, RadixParser.DEC.parseInt("[42]", 1, 3, 0, 100));
+  }
+
+  @Test
+  public void testBounds() {
+    assertEquals(100, RadixParser.DEC.parseInt("100", 0, 3, 0, 100));
+    exception.expect(IllegalArgumentException.class);
+    exception.expectMessage("101 is not in the range [0\u2025100]");
+    RadixParser.DEC.parseInt("101", 0, 3, 0, 100);
+  }
+
+  @Test
+  public void testBadRadix() {
+    exception.expect(IllegalArgumentException.class);
+    new RadixParser(37);
+  }
+
+  @Test
+  public void testAmbiguousPrefixes() {
+    assertEquals(1, parseInt(new RadixParser(11, false, true), "0b1"));
+    exception.expect(IllegalArgumentException.class);
+    new RadixParser(16, false, true);
+  }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.types.strings;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class EnumLookupTest {
+
+  private static enum DifferByCaseChoices {
+    ONE, Two, tWo, twO, Aa, BB
+  }
+
+  private static enum Empty {
+  }
+
+  @Test
+  public void testShared() {
+    assertSame(EnumLookup.forType(DifferByCaseChoices.class),
+        EnumLookup.forType(DifferByCaseChoices.class));
+  }
+
+  @Test
+  public void testExact() {
+    final EnumLookup<DifferByCaseChoices> lookup = EnumLookup.forType(DifferByCaseChoices.class);
+    assertEquals(DifferByCaseChoices.ONE, lookup.find("ONE", 0, 3, true));
+    assertEquals(DifferByCaseChoices.tWo, lookup.find("tWo", 0, 3, true));
+    assertEquals(DifferByCaseChoices.twO, lookup.find("twO", 0, 3, false));
+    // "Aa" and "BB" have the same hash code
+    assertEquals(DifferByCaseChoices.Aa, lookup.find("Aa", 0, 2, true));
+    assertEquals(DifferByCaseChoices.BB, lookup.find("BB", 0, 2, true));
+    assertNull(lookup.find("one", 0, 3, true));
+    assertNull(lookup.find("TWO", 0, 3, true));
+  }
+
+  @Test
+  public void testFolded() {
+    final EnumLookup<DifferByCaseChoices> lookup = EnumLookup.forType(DifferByCaseChoices.class);
+    assertEquals(DifferByCaseChoices.ONE, lookup.find("one", 0, 3, false));
+    // the first declared is preferred when there is no exact match
+    assertEquals(DifferByCaseChoices.Two, lookup.find("TWO", 0, 3, false));
+    assertEquals(DifferByCaseChoices.Two, lookup.find("two", 0, 3, false));
+    assertEquals(DifferByCaseChoices.BB, lookup.find("bb", 0, 2, false));
+    assertNull(lookup.find("three", 0, 5, false));
+  }
+
+  @Test
+  public void testWindow() {
+    final EnumLookup<DifferByCaseChoices> lookup = EnumLookup.forType(DifferByCaseChoices.class);
+    final StringBuilder raw = new StringBuilder("[ one ]");
+    assertEquals(DifferByCaseChoices.ONE, lookup.find(raw, 2, 5, false));
+    assertNull(lookup.find(raw, 2, 5, true));
+    assertNull(lookup.find(raw, 2, 4, false));
+  }
+
+  @Test
+  public void testEmpty() {
+    final EnumLookup<Empty> lookup = EnumLookup.forType(Empty.class);
+    assertNull(lookup.find("", 0, 0, false));
+    assertNull(lookup.find("x", 0, 1, false));
+    assertEquals(0, lookup.getConstants().size());
+  }
+
+}
@@ -49,6 +49,15 @@ public class OneOfTest {
     assertEquals(DistinctChoices.THREE, type2.parse("THREE"));
   }
 
+  @Test
+  public void testCharSequence() {
+    final OneOf<DistinctChoices> type = new OneOf<>(DistinctChoices.class, false);
+    assertEquals(DistinctChoices.TWO, type.parse(new StringBuilder(" two ")));
+    exception.expect(IllegalArgumentException.class);
+    exception.expectMessage("DistinctChoices.FOUR");
+    type.parse(new StringBuilder(" FOUR "));
+  }
+
   @Test
   public void testDistinctCaseInsensitive() {
     final OneOf<DistinctChoices> type = new OneOf<>(DistinctChoices.class, false);
@@ -15,8 +15,12 @@
 package net.revelc.code.blazon.types.units;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
+import java.util.concurrent.TimeUnit;
 import net.revelc.code.blazon.types.units.Duration.Unit;
 import org.junit.Rule;
 import org.junit.Test;
@@ -48,6 +52,82 @@ public class DurationTest {
     value = type.parse("0ms");
     assertEquals((Long) 0L, value.getMagnitude());
     assertEquals(Unit.ms, value.getUnit());
+
+    value = type.parse(" 3 D ");
+    assertEquals((Long) 3L, value.getMagnitude());
+    assertEquals(Unit.d, value.getUnit());
+
+    value = type.parse("1000NS");
+    assertEquals((Long) 1000L, value.getMagnitude());
+    assertEquals(Unit.ns, value.getUnit());
+  }
+
+  @Test
+  public void testCharSequence() {
+    final Quantity<Long, Unit> value = type.parse(new StringBuilder(" 3 D "));
+    assertEquals((Long) 3L, value.getMagnitude());
+    assertEquals(Unit.d, value.getUnit());
+    assertEquals((Long) 42L, type.parse(new StringBuilder("\t42\n")).getMagnitude());
+    assertNull(type.parse(new StringBuilder("  ")));
+  }
+
+  @Test
+  public void testCompareTo() {
+    final Quantity<Long, Unit> ninetySeconds = new Quantity<>(90L, Unit.s);
+    assertEquals(-1, Integer.signum(ninetySeconds.compareTo(new Quantity<>(2L, Unit.m))));
+    assertEquals(1, Integer.signum(ninetySeconds.compareTo(new Quantity<>(1L, Unit.m))));
+    assertEquals(0, ninetySeconds.compareTo(new Quantity<>(90_000L, Unit.ms)));
+    assertEquals(1, Integer.signum(new Quantity<>(2L, Unit.m).compareTo(ninetySeconds)));
+    assertEquals(-1, Integer.signum(new Quantity<>(1L, Unit.ns).compareTo(ninetySeconds)));
+
+    // both saturate to the same number of nanoseconds, as with TimeUnit.convert
+    final Quantity<Long, Unit> huge = new Quantity<>(Long.MAX_VALUE / 2, Unit.d);
+    final Quantity<Long, Unit> larger = new Quantity<>(Long.MAX_VALUE, Unit.h);
+    assertEquals(0, new Quantity<>(Long.MAX_VALUE, Unit.ns).compareTo(huge));
+    assertEquals(huge.as(Unit.ns).compareTo(larger.as(Unit.ns)), huge.compareTo(larger));
+  }
+
+  @Test
+  public void testPrimitiveConversions() {
+    final Quantity<Long, Unit> value = type.parse("3m");
+    assertEquals(180_000_000_000L, Duration.toNanos(value));
+    assertEquals(180_000L, Duration.toMillis(value));
+    assertEquals(180L, Duration.toSeconds(value));
+    assertEquals(3L, value.longValue(Unit.m));
+    assertEquals(0L, value.longValue(Unit.h));
+    assertEquals(Long.MAX_VALUE, Duration.toNanos(new Quantity<>(Long.MAX_VALUE / 2, Unit.d)));
+    assertEquals((Long) 180L, Unit.m.convertTo(Unit.s, (Long) 3L));
+    assertEquals(TimeUnit.MINUTES, Unit.m.getTimeUnit());
+    for (final Unit from : Unit.values()) {
+      for (final Unit to : Unit.values()) {
+        assertEquals(to.getTimeUnit().convert(12345L, from.getTimeUnit()),
+            new Quantity<>(12345L, from).longValue(to));
+      }
+    }
+  }
+
+  @Test
+  public void testCanonicalInstances() {
+    assertSame(type.parse("30s"), type.parse(" 30 S"));
+    assertSame(type.parse("30s").getMagnitude(), type.parse("30ms").getMagnitude());
+    final Quantity<Long, Unit> large = type.parse("100000ms");
+    assertSame(large, type.parse("100000 ms"));
+    assertNotSame(large, type.parse("100000 s"));
+    assertEquals(new Quantity<>(100000L, Unit.ms), large);
+    assertNotEquals(new Quantity<>(5L, Unit.s).hashCode(),
+        new Quantity<>(5L, Unit.ms).hashCode());
+  }
+
+  @Test
+  public void testUnitOnly() {
+    exception.expect(NumberFormatException.class);
+    type.parse("ms");
+  }
+
+  @Test
+  public void testUnknownUnit() {
+    exception.expect(NumberFormatException.class);
+    type.parse("5 weeks");
   }
 
   @Test
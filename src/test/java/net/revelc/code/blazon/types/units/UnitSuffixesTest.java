@@ -0,0 +1,68 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.revelc.code.blazon.types.units;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import net.revelc.code.blazon.types.units.Duration.Unit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class UnitSuffixesTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  private static enum Sizes {
+    b, B, kB, KiB
+  }
+
+  @Test
+  public void testShared() {
+    assertSame(UnitSuffixes.forUnits(Unit.class), UnitSuffixes.forUnits(Unit.class));
+  }
+
+  @Test
+  public void testLongestSuffix() {
+    final UnitSuffixes<Unit> units = UnitSuffixes.forUnits(Unit.class);
+    assertEquals(2, units.suffixStart("10ms", 0, 4));
+    assertEquals(2, units.suffixStart("10ns", 0, 4));
+    assertEquals(2, units.suffixStart("10s", 0, 3));
+    assertEquals(2, units.suffixStart("10", 0, 2));
+    assertEquals(3, units.suffixStart("10 MS", 0, 5));
+    assertEquals(0, units.suffixStart("ms", 0, 2));
+    assertEquals(Unit.ms, units.resolve("10 MS", 3, 5, false));
+    assertEquals(Unit.ns, units.resolve("10ns", 2, 4, true));
+  }
+
+  @Test
+  public void testExactPreferred() {
+    final UnitSuffixes<Sizes> units = UnitSuffixes.forUnits(Sizes.class);
+    assertEquals(Sizes.b, units.resolve("4b", 1, 2, true));
+    assertEquals(Sizes.B, units.resolve("4B", 1, 2, true));
+    assertEquals(Sizes.kB, units.resolve("4KB", 1, 3, false));
+    assertEquals(Sizes.KiB, units.resolve("4kib", 1, 4, false));
+  }
+
+  @Test
+  public void testCaseSensitiveMismatch() {
+    final UnitSuffixes<Sizes> units = UnitSuffixes.forUnits(Sizes.class);
+    exception.expect(IllegalArgumentException.class);
+    units.resolve("4KB", 1, 3, true);
+  }
+
+}